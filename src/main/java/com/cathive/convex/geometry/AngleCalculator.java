@@ -15,40 +15,34 @@ class AngleCalculator {
      * @return angle
      */
     static Angle angleOf(Point a, Point b, Point c) {
-        double scalarProduct = scalarProduct(a.subtract(b), c.subtract(b));
-        return Angle.fromRad(Math.acos(scalarProduct / (a.distanceTo(b) * c.distanceTo(b))));
+        return Angle.fromRad(radiansOf((double) a.getX() - b.getX(), (double) a.getY() - b.getY(),
+                (double) c.getX() - b.getX(), (double) c.getY() - b.getY()));
     }
 
     /**
-     * See {@link AngleCalculator#angleOf(Point, Point, Point)}
-     * @param aE A
-     * @param bE B
-     * @param cE C
-     * @return angle between the two vectors determined by the input points
+     * Calculate the angle between two vectors U and V in radians, without creating any objects.
+     * Works only for angles with a maximum value of 180 degrees.
+     * @param ux X value of U
+     * @param uy Y value of U
+     * @param vx X value of V
+     * @param vy Y value of V
+     * @return radians between 0 and PI
      */
-    static Angle angleOf(CircularList.Entry<Point> aE, CircularList.Entry<Point> bE, CircularList.Entry<Point> cE) {
-        return angleOf(aE.get(), bE.get(), cE.get());
+    static double radiansOf(double ux, double uy, double vx, double vy) {
+        return radiansOf(ux, uy, Math.sqrt(ux * ux + uy * uy), vx, vy, Math.sqrt(vx * vx + vy * vy));
     }
 
     /**
-     * Calculate the angle between two vectors AB and DC
-     * @param a A
-     * @param b B
-     * @param c C
-     * @param d D
-     * @return angle between the two vectors determined by the input points
-     */
-    static Angle angleOf(Point a, Point b, Point c, Point d) {
-        return angleOf(a.subtract(b), Point.ORIGIN, d.subtract(c));
-    }
-
-    /**
-     * Calculate the scalar product of two points
-     * @param a A
-     * @param b B
-     * @return scalar product
+     * See {@link AngleCalculator#radiansOf(double, double, double, double)}, for vectors of known lengths
+     * @param ux X value of U
+     * @param uy Y value of U
+     * @param uLength length of U
+     * @param vx X value of V
+     * @param vy Y value of V
+     * @param vLength length of V
+     * @return radians between 0 and PI
      */
-    private static double scalarProduct(Point a, Point b){
-        return a.getX() * b.getX() + a.getY() * b.getY();
+    static double radiansOf(double ux, double uy, double uLength, double vx, double vy, double vLength) {
+        return Math.acos((ux * vx + uy * vy) / (uLength * vLength));
     }
-}
\ No newline at end of file
+}
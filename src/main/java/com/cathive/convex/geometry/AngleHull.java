@@ -1,13 +1,15 @@
 package com.cathive.convex.geometry;
 
-import com.cathive.convex.geometry.CircularList.Entry;
 import com.google.common.collect.Lists;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static com.cathive.convex.geometry.AngleCalculator.angleOf;
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
@@ -25,22 +27,60 @@ public class AngleHull {
      */
     private final List<CutArc> arcs;
 
+    /**
+     * Vertices of the convex hull this hull was generated from
+     */
+    private final Ring ring;
+
+    /**
+     * Alpha in radians
+     */
+    private final double alpha;
+
     /**
      * Private constructor. Use {@link Factory#generateAngleHull(ConvexHull, Angle)}
      * to generate a hull.
      *
-     * @param arcs of the hull
+     * @param arcs  of the hull
+     * @param ring  vertices of the convex hull
+     * @param alpha in radians
      */
-    private AngleHull(List<CutArc> arcs) {
+    private AngleHull(List<CutArc> arcs, Ring ring, double alpha) {
         this.arcs = arcs;
+        this.ring = ring;
+        this.alpha = alpha;
+    }
+
+    /**
+     * Generate the angle hull of another convex hull with the angle alpha of this hull, usually of an update
+     * of the convex hull this hull was generated from. A step of the walk around the convex hull only depends
+     * on the two base points of its arc and the vertices that follow them. So the arcs of all steps whose base
+     * points are followed by the same edges in both convex hulls are taken over from this hull. Only the arcs
+     * next to changed parts of the convex hull are calculated again, and the arcs next to them are cut again.
+     * The result is the same as the one of {@link Factory#generateAngleHull(ConvexHull, Angle)}.
+     *
+     * @param cv convex hull
+     * @return angle hull of the convex hull
+     */
+    public AngleHull update(final ConvexHull cv) {
+        return Factory.INSTANCE.generateAngleHull(Ring.of(Lists.reverse(cv.getPoints())), this.alpha, this);
+    }
+
+    /**
+     * Return the number of arcs of this hull
+     *
+     * @return number of arcs
+     */
+    int size() {
+        return this.arcs.size();
     }
 
     /**
      * Calls {@link ArcCollector#apply(Point, double, Angle, Angle)}
      * for each arc of this hull and collects the result of the function. Returns all calculated elements in a stream.
      * The selected strategy decides if cut or uncut arcs are used for collection.
-     * The cut arcs might not be 100% precisely cut, so an external cutting algorithm might
-     * want to use the uncut arcs.
+     * The centers are rounded to the nearest point, so the cut arcs do not meet exactly. Use
+     * {@link #mapWith(PreciseArcCollector, CuttingStrategy)} to render cut arcs cleanly.
      *
      * @param collector       accepted collector
      * @param cuttingStrategy determines if the collected arcs are cut, and thus non-overlapping, or uncut, thus overlapping.
@@ -57,6 +97,75 @@ public class AngleHull {
         }
     }
 
+    /**
+     * Calls {@link PreciseArcCollector#apply(double, double, double, Angle, Angle)}
+     * for each arc of this hull and collects the result of the function. Returns all calculated elements in a stream.
+     * The selected strategy decides if cut or uncut arcs are used for collection.
+     * Every cut arc ends at the intersection with the circle of the next arc, where the next cut arc starts,
+     * so the cut arcs can be rendered in one pass without overlapping.
+     *
+     * @param collector       accepted collector
+     * @param cuttingStrategy determines if the collected arcs are cut, and thus non-overlapping, or uncut, thus overlapping.
+     * @return result of all calls to the argument function
+     */
+    public <T> Stream<T> mapWith(final PreciseArcCollector<T> collector, final CuttingStrategy cuttingStrategy) {
+        switch (cuttingStrategy) {
+            case CUT:
+                return this.arcs.stream().map(CutArc::cut).map(a -> a.accept(collector));
+            case UNCUT:
+                return this.arcs.stream().map(CutArc::uncut).map(a -> a.accept(collector));
+            default:
+                throw new IllegalStateException("Unrecognized cutting strategy: " + cuttingStrategy);
+        }
+    }
+
+    /**
+     * Write the arcs of this hull, see {@link HullCodec}
+     *
+     * @param out to write to
+     */
+    void encode(final HullCodec.Writer out) {
+        out.writeDouble(this.alpha);
+        final long[] vertices = this.ring.packed();
+        out.writePoints(vertices, 0, vertices.length);
+        out.writeVarint(this.arcs.size());
+        long left = PointBuffer.pack(0, 0);
+        long right = PointBuffer.pack(0, 0);
+        for (final CutArc arc : this.arcs) {
+            // the base points of consecutive arcs are the same or neighbours
+            out.writePoint(arc.left, left);
+            out.writePoint(arc.right, right);
+            left = arc.left;
+            right = arc.right;
+            arc.uncut().encode(out);
+            // the cut arc follows from the uncut one and the cut angles
+            out.writeDouble(arc.rhos);
+            out.writeDouble(arc.rhoe);
+        }
+    }
+
+    /**
+     * Read a hull written by {@link #encode(HullCodec.Writer)}
+     *
+     * @param in to read from
+     * @return decoded hull
+     */
+    static AngleHull decode(final HullCodec.Reader in) {
+        final double alpha = in.readDouble();
+        final Ring ring = Ring.of(in.readPoints());
+        final int size = in.readCount();
+        final List<CutArc> arcs = new ArrayList<>(size);
+        long left = PointBuffer.pack(0, 0);
+        long right = PointBuffer.pack(0, 0);
+        for (int i = 0; i < size; i++) {
+            left = in.readPoint(left);
+            right = in.readPoint(right);
+            final Arc uncut = Arc.decode(in);
+            arcs.add(new CutArc(uncut, left, right, in.readDouble(), in.readDouble()));
+        }
+        return new AngleHull(arcs, ring, alpha);
+    }
+
     /**
      * Used to collect the components of the arcs of an {@link AngleHull}
      */
@@ -66,13 +175,30 @@ public class AngleHull {
          *
          * @param z    center point
          * @param r    radius in px
-         * @param beta start angle
-         * @param rho  extent angle
+         * @param beta extent angle
+         * @param rho  start angle
          * @return an arbitraty non-null result
          */
         T apply(Point z, double r, Angle beta, Angle rho);
     }
 
+    /**
+     * Used to collect the components of the arcs of an {@link AngleHull} with the exact center
+     */
+    public interface PreciseArcCollector<T> {
+        /**
+         * Called with the components of an arc of the angle hull
+         *
+         * @param zx   X value of the center point
+         * @param zy   Y value of the center point
+         * @param r    radius in px
+         * @param beta extent angle
+         * @param rho  start angle
+         * @return an arbitraty non-null result
+         */
+        T apply(double zx, double zy, double r, Angle beta, Angle rho);
+    }
+
     /**
      * Provides the algorithm to generate {@link AngleHull}s
      *
@@ -101,9 +227,72 @@ public class AngleHull {
          * @return angle hull
          */
         public AngleHull generateAngleHull(final ConvexHull cv, final Angle alpha) {
+            checkAlpha(alpha);
+            return generateAngleHull(Ring.of(Lists.reverse(cv.getPoints())), alpha.rad(), null);
+        }
+
+        /**
+         * Generate the angle hulls of a convex hull for several angles. The vertices and the edges of the
+         * convex hull are prepared once and shared by the walks of all angles.
+         *
+         * @param cv     convex hull
+         * @param alphas fixed angles alpha. Smaller than 180 degrees, bigger than 0 degrees.
+         * @return new list of the angle hulls in the order of the angles
+         */
+        public List<AngleHull> generateAngleHulls(final ConvexHull cv, final Angle... alphas) {
+            Arrays.stream(alphas).forEach(Factory::checkAlpha);
+            final Ring ring = Ring.of(Lists.reverse(cv.getPoints()));
+            final List<AngleHull> hulls = new ArrayList<>(alphas.length);
+            for (final Angle alpha : alphas) {
+                hulls.add(generateAngleHull(ring, alpha.rad(), null));
+            }
+            return hulls;
+        }
+
+        /**
+         * Generate the angle hulls of a convex hull for several angles like
+         * {@link #generateAngleHulls(ConvexHull, Angle...)}, but walk the convex hull for every angle
+         * in a task of the pool. The calling thread waits for the tasks to finish.
+         *
+         * @param cv     convex hull
+         * @param pool   to run the tasks in
+         * @param alphas fixed angles alpha. Smaller than 180 degrees, bigger than 0 degrees.
+         * @return new list of the angle hulls in the order of the angles
+         */
+        public List<AngleHull> generateAngleHulls(final ConvexHull cv, final ForkJoinPool pool, final Angle... alphas) {
+            Arrays.stream(alphas).forEach(Factory::checkAlpha);
+            final Ring ring = Ring.of(Lists.reverse(cv.getPoints()));
+            final List<ForkJoinTask<AngleHull>> tasks = new ArrayList<>(alphas.length);
+            for (final Angle alpha : alphas) {
+                tasks.add(pool.submit(() -> generateAngleHull(ring, alpha.rad(), null)));
+            }
+            return tasks.stream().map(ForkJoinTask::join).collect(Collectors.toList());
+        }
+
+        /**
+         * Prepare the generation of the angle hulls of a convex hull for any number of angles, see
+         * {@link Parametric}
+         *
+         * @param cv convex hull
+         * @return angle hulls of the convex hull for any angle
+         */
+        public Parametric parametrize(final ConvexHull cv) {
+            return new Parametric(Ring.turning(Lists.reverse(cv.getPoints())));
+        }
+
+        private static void checkAlpha(final Angle alpha) {
             checkArgument(alpha.deg() > 0d && alpha.deg() < 180d, "Alpha must be gt 0 and lt 180 degrees");
-            final List<Point> points = Lists.reverse(cv.getPoints());
+        }
 
+        /**
+         * Generate the angle hull of the vertices of a convex hull
+         *
+         * @param ring     vertices of the convex hull
+         * @param a        fixed angle alpha in radians
+         * @param previous angle hull of the same alpha to take unchanged arcs from, or null
+         * @return angle hull
+         */
+        private AngleHull generateAngleHull(final Ring ring, final double a, final AngleHull previous) {
             /*
             We start by searching for an initial valid pair ls and rs of points
             that are part of the convex hull.
@@ -114,99 +303,550 @@ public class AngleHull {
             the angle hull.
             If rs and ls are the same point, we select next(rs) as second
             base point.
-
-            rhoss is used to cut the arc later so that the arcs of the hull do not
-            overlap.
              */
-            final CircularList<Point> circularList = new CircularList<>(points);
-            final Entry<Point> ls = circularList.first();
-            Entry<Point> rs = circularList.first();
-            Angle rhoss;
-            while (wvt(ls.prev(), ls, rs, rs.next(), alpha)) {
-                rs = rs.next();
+            final int ls = 0;
+            int rs = ring.start(a);
+            while (ring.wvt(ring.prev(ls), rs, a)) {
+                rs = ring.next(rs);
             }
-            if (ls.equalContent(rs)) {
-                rs = rs.next();
-                rhoss = Angle.ZERO;
-            } else {
-                rhoss = angleOf(rs, ls, ls.prev()).subtract(alpha).timesTwo();
+            if (ring.equalContent(ls, rs)) {
+                rs = ring.next(rs);
             }
-            return walk(ls, rs, rhoss, alpha);
+            final Steps steps = previous != null && previous.ring.searchable() && ring.searchable()
+                    ? new Steps(previous) : null;
+            return walk(ring, ls, rs, a, steps);
         }
 
         /**
          * Walk around the convex hull to find all arcs that are part of the angle
          * hull. A "rotating caterpillars" algorithm is used, where in each step,
          * one of the points or even both points advance. In every step of the
-         * loop, one arc is added to the result list.
+         * loop, one arc is added to the result list. The points are indices into the
+         * ring and the angles are radians, so nothing but the arcs is created.
+         * <p>
+         * Consecutive arcs share a base point, so their circles meet at that point and at its reflection on
+         * the line through their centers. The cut angles rho_e and rho_s of the arcs, which follow from the
+         * inscribed angles of the base points, are corrected to that intersection, so that both cut arcs end
+         * at the same point.
+         * <p>
+         * Steps that the walk of a previous angle hull took with the same base points and the same following
+         * edges are repeated from their results instead of calculating them again.
          *
-         * @param ls    left initial point
-         * @param rs    right initial point. Must not be equal to ls.
-         * @param rhoss angle used to cut the generated angles so that they do not overlap.
-         * @param alpha alpha angle of the angle hull
+         * @param ring     vertices of the convex hull
+         * @param ls       left initial point
+         * @param rs       right initial point. Must not be equal to ls.
+         * @param alpha    alpha angle of the angle hull in radians
+         * @param previous steps of a previous angle hull of the same alpha, or null
          * @return the finished angle hull containing all calculated arcs
          */
-        private AngleHull walk(final Entry<Point> ls, final Entry<Point> rs, Angle rhoss, final Angle alpha) {
-            Entry<Point> ll = ls;
-            Entry<Point> rr = rs;
+        private AngleHull walk(final Ring ring, final int ls, final int rs, final double alpha,
+                               final Steps previous) {
+            final double twoTan = 2d * Math.tan(alpha);
+            final double twoSin = 2d * Math.sin(alpha);
             final List<CutArc> arcs = new ArrayList<>();
+            final Arc first = Arc.of(ring.xs[ls], ring.ys[ls], ring.xs[rs], ring.ys[rs], alpha, twoTan, twoSin);
+            // the first arc is cut when the walk has returned to it
+            arcs.add(null);
+            double firstRhoe = 0d;
+            int l = ls;
+            int r = rs;
+            Arc arc = first;
+            double rhos = 0d;
+            // step of the previous walk that may be repeated, and whether the last step was repeated
+            int candidate = previous == null ? -1 : previous.find(ring, l, r);
+            boolean repeated = false;
+            boolean done;
             do {
-                Entry<Point> l = ll;
-                Entry<Point> r = rr;
-                Angle rhos = rhoss;
-                Angle rhoe;
-                if (wvt(l, l.next(), r, r.next(), alpha)) {
-
-                    if (wvt(l, r, r, r.next(), alpha)) {
-                        rhoe = angleOf(r.next(), r, l).subtract(alpha).timesTwo();
-                        rhoss = angleOf(l, r.next(), r).timesTwo();
-                    } else {
-                        rhoe = Angle.ZERO;
-                        rhoss = Angle.ZERO;
-                    }
-                    rr = r.next();
+                int ll = l;
+                int rr = r;
+                double rhoe;
+                double rhoss;
+                final Arc next;
+                final CutArc step = candidate >= 0 && previous.repeats(candidate, ring, l, r)
+                        ? previous.arc(candidate) : null;
+                if (step != null) {
+                    final CutArc after = previous.arc(candidate + 1);
+                    rhoe = step.rhoe;
+                    rhoss = after.rhos;
+                    ll = after.left == step.left ? l : ring.next(l);
+                    rr = after.right == step.right ? r : ring.next(r);
+                    done = ring.equalContent(ll, ls) && ring.equalContent(rr, rs);
+                    next = done ? first : after.uncut();
+                    candidate = candidate + 1;
                 } else {
-                    if (l.next().equalContent(r)) {
-                        rhoe = Angle.ZERO;
-                        rhoss = Angle.ZERO;
-                        rr = r.next();
+                    // base point shared with the next arc, which is cut at its reflection, if any
+                    int shared = -1;
+                    boolean reflect = true;
+                    if (ring.wvt(l, r, alpha)) {
+
+                        if (ring.wvt(l, r, r, ring.next(r), alpha)) {
+                            rhoe = (ring.angleOf(ring.next(r), r, l) - alpha) * 2d;
+                            rhoss = ring.angleOf(l, ring.next(r), r) * 2d;
+                            shared = l;
+                        } else {
+                            rhoe = 0d;
+                            rhoss = 0d;
+                        }
+                        rr = ring.next(r);
                     } else {
-                        rhoe = angleOf(l.next(), l, r).timesTwo();
-                        rhoss = angleOf(r, l.next(), l).subtract(alpha).timesTwo();
+                        if (ring.equalContent(ring.next(l), r)) {
+                            rhoe = 0d;
+                            rhoss = 0d;
+                            rr = ring.next(r);
+                            // the next arc starts where this one ends
+                            shared = r;
+                            reflect = false;
+                        } else {
+                            rhoe = ring.angleOf(ring.next(l), l, r) * 2d;
+                            rhoss = (ring.angleOf(r, ring.next(l), l) - alpha) * 2d;
+                            shared = r;
+                        }
+                        ll = ring.next(l);
+                    }
+                    done = ring.equalContent(ll, ls) && ring.equalContent(rr, rs);
+                    next = done ? first
+                            : Arc.of(ring.xs[ll], ring.ys[ll], ring.xs[rr], ring.ys[rr], alpha, twoTan, twoSin);
+                    if (shared >= 0) {
+                        double px = ring.xs[shared];
+                        double py = ring.ys[shared];
+                        if (reflect) {
+                            final double ux = next.centerX() - arc.centerX();
+                            final double uy = next.centerY() - arc.centerY();
+                            final double t = ((px - arc.centerX()) * ux + (py - arc.centerY()) * uy)
+                                    / (ux * ux + uy * uy);
+                            px = 2d * (arc.centerX() + t * ux) - px;
+                            py = 2d * (arc.centerY() + t * uy) - py;
+                        }
+                        rhoe = arc.endAt(px, py, rhoe);
+                        rhoss = next.startAt(px, py, rhoss);
                     }
-                    ll = l.next();
+                    candidate = previous == null || done ? -1 : previous.find(ring, ll, rr);
+                }
+                if (arc == first) {
+                    firstRhoe = rhoe;
+                } else if (repeated && step != null) {
+                    // both cuts are the same as before
+                    arcs.add(step);
+                } else {
+                    arcs.add(new CutArc(arc, ring.packed(l), ring.packed(r), rhos, rhoe));
+                }
+                repeated = step != null;
+                arc = next;
+                rhos = rhoss;
+                l = ll;
+                r = rr;
+            } while (!done);
+            arcs.set(0, new CutArc(first, ring.packed(ls), ring.packed(rs), rhos, firstRhoe));
+            return new AngleHull(arcs, ring, alpha);
+        }
+    }
+
+    /**
+     * The angle hulls of one convex hull for any angle alpha, e.g. for an angle that is changed continuously.
+     * <p>
+     * Whether the walk advances the right or the left base point only depends on the angle between the edges
+     * after them. The edges of a convex hull turn in one direction, so this angle is the difference of the
+     * angles by which the edges have turned from the first edge, which are calculated once. Two vertices
+     * l and r are the base points of an arc for all alpha in the interval from PI minus the turn from the edge
+     * before l to the edge after r, exclusive, to PI minus the turn from the edge after l to the edge before r,
+     * inclusive. So the walk for an angle is one linear pass that compares the turns instead of calculating
+     * angles, and it starts at a pair of base points that is found by binary search instead of a walk.
+     * <p>
+     * For angles so close to the bounds of the intervals that rounding errors of the turns could decide the
+     * comparison, such as whole degrees on hulls of grid points, the angle between the edges is calculated as
+     * {@link Factory#generateAngleHull(ConvexHull, Angle)} does, so that both generate the same arcs.
+     * Instances are immutable.
+     *
+     * @author Alexander Erben
+     */
+    public static final class Parametric {
+
+        private final Ring ring;
+
+        private Parametric(final Ring ring) {
+            this.ring = ring;
+        }
+
+        /**
+         * Generate the angle hull for a fixed angle alpha
+         *
+         * @param alpha fixed angle alpha. Smaller than 180 degrees, bigger than 0 degrees.
+         * @return angle hull
+         */
+        public AngleHull generateAngleHull(final Angle alpha) {
+            Factory.checkAlpha(alpha);
+            return Factory.INSTANCE.generateAngleHull(this.ring, alpha.rad(), null);
+        }
+    }
+
+    /**
+     * The steps of the walk that generated an angle hull, looked up by the base points of their arcs
+     */
+    private static final class Steps {
+
+        private final List<CutArc> arcs;
+
+        private final Ring ring;
+
+        /**
+         * Indices of the base points of every arc in the ring
+         */
+        private final int[] lefts, rights;
+
+        /**
+         * Index of the first arc of every left base point, or -1
+         */
+        private final int[] firstArcs;
+
+        private Steps(final AngleHull hull) {
+            this.arcs = hull.arcs;
+            this.ring = hull.ring;
+            this.lefts = new int[this.arcs.size()];
+            this.rights = new int[this.arcs.size()];
+            this.firstArcs = new int[this.ring.h];
+            Arrays.fill(this.firstArcs, -1);
+            int left = this.ring.indexOf(this.arcs.get(0).left);
+            int right = this.ring.indexOf(this.arcs.get(0).right);
+            for (int i = 0; i < this.arcs.size(); i++) {
+                // the base points only advance to the next vertex
+                if (this.ring.packed(left) != this.arcs.get(i).left) {
+                    left = this.ring.next(left);
+                }
+                if (this.ring.packed(right) != this.arcs.get(i).right) {
+                    right = this.ring.next(right);
+                }
+                this.lefts[i] = left;
+                this.rights[i] = right;
+                if (this.firstArcs[left] < 0) {
+                    this.firstArcs[left] = i;
                 }
-                final Arc arc = Arc.of(l.get(), r.get(), alpha);
-                arcs.add(new CutArc(arc, arc.cutArc(rhos, rhoe)));
-            } while (!ll.equalContent(ls) || !rr.equalContent(rs));
-            return new AngleHull(arcs);
+            }
+        }
+
+        private CutArc arc(final int i) {
+            return this.arcs.get(i % this.arcs.size());
+        }
+
+        /**
+         * Find the step of the arc on two base points
+         *
+         * @param ring of the base points
+         * @param l    index of the left base point
+         * @param r    index of the right base point
+         * @return index of the step, or -1 if the walk took no step on the base points
+         */
+        private int find(final Ring ring, final int l, final int r) {
+            final int left = this.ring.indexOf(ring.packed(l));
+            if (left < 0) {
+                return -1;
+            }
+            final long right = ring.packed(r);
+            for (int i = this.firstArcs[left]; i >= 0 && i < this.arcs.size() && this.lefts[i] == left; i++) {
+                if (this.arcs.get(i).right == right) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Check whether a step is taken again on two base points of another ring, which is the case if the
+         * base points are followed by the same vertices in both rings
+         *
+         * @param i    index of the step
+         * @param ring of the base points
+         * @param l    index of the left base point
+         * @param r    index of the right base point
+         * @return true if the step is the same
+         */
+        private boolean repeats(final int i, final Ring ring, final int l, final int r) {
+            final int step = i % this.arcs.size();
+            return this.ring.packed(this.lefts[step]) == ring.packed(l)
+                    && this.ring.packed(this.rights[step]) == ring.packed(r)
+                    && this.ring.packed(this.ring.next(this.lefts[step])) == ring.packed(ring.next(l))
+                    && this.ring.packed(this.ring.next(this.rights[step])) == ring.packed(ring.next(r));
+        }
+    }
+
+    /**
+     * The vertices of a convex hull as a ring of primitive coordinates, which the points of the
+     * {@link Factory} walk index. The vectors and the lengths of the edges are calculated once,
+     * so that a ring can be shared by the walks of several angles.
+     */
+    private static final class Ring {
+
+        /**
+         * Turns that differ from PI minus alpha by at most this many radians are not compared, as their rounding
+         * errors may decide the test differently than the angle between the edges does. Such ties are common,
+         * for instance for whole degrees on hulls of grid points.
+         */
+        private static final double TURN_TOLERANCE = 1e-9;
+
+        private final int[] xs, ys;
+
+        private final int h;
+
+        /**
+         * Vector from every vertex to the next one and its length
+         */
+        private final long[] edgeXs, edgeYs;
+
+        private final double[] edgeLengths;
+
+        /**
+         * Index of the greatest vertex, if the vertices ascend up to it and descend after it, as the reversed
+         * vertices of a {@link ConvexHull} of at least 4 points do, or -1
+         */
+        private final int top;
+
+        /**
+         * Angle in radians by which every edge has turned from the first one, followed by the angle of a full
+         * turn, or null if the angles are calculated for every test
+         */
+        private final double[] turns;
+
+        private Ring(final int[] xs, final int[] ys) {
+            this(xs, ys, false);
+        }
+
+        private Ring(final int[] xs, final int[] ys, final boolean turning) {
+            checkArgument(xs.length > 1, "Angle hulls need a convex hull of at least two points.");
+            this.h = xs.length;
+            this.xs = xs;
+            this.ys = ys;
+            this.edgeXs = new long[this.h];
+            this.edgeYs = new long[this.h];
+            this.edgeLengths = new double[this.h];
+            for (int i = 0; i < this.h; i++) {
+                this.edgeXs[i] = (long) this.xs[next(i)] - this.xs[i];
+                this.edgeYs[i] = (long) this.ys[next(i)] - this.ys[i];
+                this.edgeLengths[i] = Math.sqrt((double) this.edgeXs[i] * this.edgeXs[i]
+                        + (double) this.edgeYs[i] * this.edgeYs[i]);
+            }
+            int top = 0;
+            while (top + 1 < this.h && packed(top + 1) > packed(top)) {
+                top++;
+            }
+            int bottom = top;
+            while (bottom + 1 < this.h && packed(bottom + 1) < packed(bottom)) {
+                bottom++;
+            }
+            this.top = this.h > 3 && bottom == this.h - 1 ? top : -1;
+            // the edges of rings of fewer vertices do not turn in one direction
+            this.turns = turning && this.top >= 0 ? turns() : null;
+        }
+
+        private static Ring of(final List<Point> points) {
+            return of(points, false);
+        }
+
+        /**
+         * Create a ring that compares the turns of the edges in the tests, see {@link Parametric}
+         */
+        private static Ring turning(final List<Point> points) {
+            return of(points, true);
+        }
+
+        private static Ring of(final List<Point> points, final boolean turning) {
+            final int[] xs = new int[points.size()];
+            final int[] ys = new int[points.size()];
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = points.get(i).getX();
+                ys[i] = points.get(i).getY();
+            }
+            return new Ring(xs, ys, turning);
+        }
+
+        private static Ring of(final long[] packed) {
+            final int[] xs = new int[packed.length];
+            final int[] ys = new int[packed.length];
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = PointBuffer.x(packed[i]);
+                ys[i] = PointBuffer.y(packed[i]);
+            }
+            return new Ring(xs, ys);
+        }
+
+        /**
+         * Sum up the angles between consecutive edges, which are not negative as the ring turns counterclockwise
+         */
+        private double[] turns() {
+            final double[] turns = new double[this.h + 1];
+            for (int i = 1; i <= this.h; i++) {
+                final int edge = i == this.h ? 0 : i;
+                final int previous = i - 1;
+                double turn = 0d;
+                if (Determinant.of(0, 0, this.edgeXs[previous], this.edgeYs[previous],
+                        this.edgeXs[edge], this.edgeYs[edge]) > 0) {
+                    turn = Math.max(0d, Math.atan2(
+                            (double) this.edgeXs[previous] * this.edgeYs[edge]
+                                    - (double) this.edgeYs[previous] * this.edgeXs[edge],
+                            (double) this.edgeXs[previous] * this.edgeXs[edge]
+                                    + (double) this.edgeYs[previous] * this.edgeYs[edge]));
+                }
+                turns[i] = turns[i - 1] + turn;
+            }
+            return turns;
+        }
+
+        /**
+         * Angle in radians by which the edges turn from one edge to another one, at most a full turn
+         */
+        private double turn(final int first, final int second) {
+            return second >= first ? this.turns[second] - this.turns[first]
+                    : this.turns[second] + this.turns[this.h] - this.turns[first];
+        }
+
+        /**
+         * Skip the right base points of the initial search of the {@link Factory} that pass the test with the
+         * edge before the first vertex. If the turns of the edges are known, they are found by binary search.
+         *
+         * @param alpha compared angle in radians
+         * @return index of the first right base point to test
+         */
+        private int start(final double alpha) {
+            if (this.turns == null || !wvt(this.h - 1, 0, alpha)) {
+                return 0;
+            }
+            // the turn from the last edge increases up to the last edge, which fails the test
+            int low = 1;
+            int high = this.h - 1;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (wvt(this.h - 1, middle, alpha)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private long packed(final int i) {
+            return PointBuffer.pack(this.xs[i], this.ys[i]);
+        }
+
+        private long[] packed() {
+            final long[] packed = new long[this.h];
+            for (int i = 0; i < this.h; i++) {
+                packed[i] = packed(i);
+            }
+            return packed;
+        }
+
+        /**
+         * Check whether vertices can be found by {@link #indexOf(long)}
+         */
+        private boolean searchable() {
+            return this.top >= 0;
+        }
+
+        /**
+         * Find a vertex by binary search in the ascending and the descending part of the ring
+         *
+         * @param packed vertex, see {@link PointBuffer#pack(int, int)}
+         * @return index of the vertex, or -1 if it is not a vertex
+         */
+        private int indexOf(final long packed) {
+            int low = 0;
+            int high = this.top;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                if (packed(middle) < packed) {
+                    low = middle + 1;
+                } else if (packed(middle) > packed) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            low = this.top + 1;
+            high = this.h - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                if (packed(middle) > packed) {
+                    low = middle + 1;
+                } else if (packed(middle) < packed) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -1;
+        }
+
+        private int next(final int i) {
+            return i + 1 == this.h ? 0 : i + 1;
+        }
+
+        private int prev(final int i) {
+            return i == 0 ? this.h - 1 : i - 1;
+        }
+
+        /**
+         * Check if two indices hold the same point, which they may do at different positions
+         */
+        private boolean equalContent(final int i, final int j) {
+            return this.xs[i] == this.xs[j] && this.ys[i] == this.ys[j];
+        }
+
+        /**
+         * Calculate the angle between the vectors BA and BC in radians
+         */
+        private double angleOf(final int a, final int b, final int c) {
+            return AngleCalculator.radiansOf((double) this.xs[a] - this.xs[b], (double) this.ys[a] - this.ys[b],
+                    (double) this.xs[c] - this.xs[b], (double) this.ys[c] - this.ys[b]);
         }
 
         /**
          * The "Winkelvergleichstest". For four points A, B, C and D which
-         * are in this case given as entries of a ring, a check is performed
+         * are in this case given as indices of the ring, a check is performed
          * if the vectory AB and DC cut each other. If they do not, the test
          * fails. If they do, the cut angle between them is calculated.
          * If it is smaller than alpha, the test fails. If it is gt alpha,
          * the test succeeds.
          *
-         * @param aE    A
-         * @param bE    B
-         * @param cE    C
-         * @param dE    D
-         * @param alpha compared angle
+         * @param a     A
+         * @param b     B
+         * @param c     C
+         * @param d     D
+         * @param alpha compared angle in radians
          * @return true if the test is successful, false if not.
          */
-        private boolean wvt(Entry<Point> aE, Entry<Point> bE, Entry<Point> cE, Entry<Point> dE, Angle alpha) {
-            Point a = aE.get();
-            Point b = bE.get();
-            Point c = cE.get();
-            Point d = dE.get();
-            long determinant = Determinant.of(b.subtract(a), d.subtract(c), Point.ORIGIN);
-            return determinant > 0 && angleOf(a, b, c, d).rad() >= alpha.rad();
+        private boolean wvt(final int a, final int b, final int c, final int d, final double alpha) {
+            final long abx = (long) this.xs[b] - this.xs[a];
+            final long aby = (long) this.ys[b] - this.ys[a];
+            final long cdx = (long) this.xs[d] - this.xs[c];
+            final long cdy = (long) this.ys[d] - this.ys[c];
+            return Determinant.of(0, 0, abx, aby, cdx, cdy) > 0
+                    && AngleCalculator.radiansOf(-abx, -aby, cdx, cdy) >= alpha;
         }
-    }
 
+        /**
+         * The "Winkelvergleichstest" of two edges, see {@link #wvt(int, int, int, int, double)},
+         * with A and B the vertices of the first edge and C and D those of the second edge. If the turns of
+         * the edges are known, the angle between the edges is PI minus the turn from the first to the second.
+         * Only if that is too close to alpha, see {@link #TURN_TOLERANCE}, the angle is calculated.
+         *
+         * @param first  index of the first vertex of the first edge
+         * @param second index of the first vertex of the second edge
+         * @param alpha  compared angle in radians
+         * @return true if the test is successful, false if not.
+         */
+        private boolean wvt(final int first, final int second, final double alpha) {
+            if (this.turns != null) {
+                final double turn = turn(first, second);
+                final double limit = Math.PI - alpha;
+                if (Math.abs(turn - limit) > TURN_TOLERANCE) {
+                    return turn > 0d && turn < limit;
+                }
+            }
+            return Determinant.of(0, 0, this.edgeXs[first], this.edgeYs[first],
+                    this.edgeXs[second], this.edgeYs[second]) > 0
+                    && AngleCalculator.radiansOf(-this.edgeXs[first], -this.edgeYs[first], this.edgeLengths[first],
+                    this.edgeXs[second], this.edgeYs[second], this.edgeLengths[second]) >= alpha;
+        }
+    }
 
     /**
      * Wrapper around a pair of {@link Arc}s, one of them cut, the other uncut.
@@ -214,8 +854,6 @@ public class AngleHull {
      * so that they do not overlap when put together in the {@link AngleHull}.
      * Used so that for every arc of the hull, the cut and uncut version can be retrieved
      * where neccessary.
-     * The cut arcs might not be 100% precisely cut, so an external cutting algorithm might
-     * want to use the uncut arcs.
      */
     private static final class CutArc {
 
@@ -229,15 +867,32 @@ public class AngleHull {
          */
         private final Arc cut;
 
+        /**
+         * Base points of the arc, see {@link PointBuffer#pack(int, int)}
+         */
+        private final long left, right;
+
+        /**
+         * Angles in radians by which the start and the end of the uncut arc are cut
+         */
+        private final double rhos, rhoe;
+
         /**
          * Ctor
          *
          * @param uncut the uncut arc that will overlap
-         * @param cut   the cut arc that will not overlap
+         * @param left  first base point
+         * @param right second base point
+         * @param rhos  rho_s angle in radians
+         * @param rhoe  rho_e angle in radians
          */
-        private CutArc(Arc uncut, Arc cut) {
+        private CutArc(Arc uncut, long left, long right, double rhos, double rhoe) {
             this.uncut = uncut;
-            this.cut = cut;
+            this.cut = uncut.cutArc(rhos, rhoe);
+            this.left = left;
+            this.right = right;
+            this.rhos = rhos;
+            this.rhoe = rhoe;
         }
 
         /**
@@ -0,0 +1,231 @@
+package com.cathive.convex.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Cache of {@link AngleHull}s by the vertices of their {@link ConvexHull} and their angle alpha, so that the angle
+ * hulls of a convex hull that was seen before are not generated again. Convex hulls of the same vertices share
+ * their angle hulls, no matter whether they are the same instance.
+ * <p>
+ * A key holds a 64 bit fingerprint of the vertices, which is compared first, and the vertices themselves, so that
+ * two convex hulls of the same fingerprint are never confused. The memory is bounded by the number of arcs of the
+ * cached angle hulls. As every vertex of a convex hull touches at least one arc of its angle hull, the vertices in
+ * the keys take no more memory than the arcs. When the bound is exceeded, the least recently used angle hulls are
+ * evicted.
+ * <p>
+ * Instances are thread-safe. Angle hulls are generated outside of the lock, so two threads that miss the same key
+ * at the same time may both generate the angle hull.
+ *
+ * @author Alexander Erben
+ */
+public final class AngleHullCache {
+
+    private final AngleHull.Factory factory = AngleHull.Factory.get();
+
+    /**
+     * Entries in the order of their last access, the least recently used first
+     */
+    private final Map<Key, AngleHull> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final long maximumArcs;
+
+    private long arcs;
+
+    private long hits, misses;
+
+    /**
+     * Create an empty cache
+     *
+     * @param maximumArcs number of arcs of all cached angle hulls, at least 1
+     */
+    public AngleHullCache(final long maximumArcs) {
+        checkArgument(maximumArcs > 0, "The cache must hold at least one arc");
+        this.maximumArcs = maximumArcs;
+    }
+
+    /**
+     * Return the angle hull of a convex hull and an angle alpha, which is generated on a miss
+     *
+     * @param cv    convex hull
+     * @param alpha fixed angle alpha. Smaller than 180 degrees, bigger than 0 degrees.
+     * @return cached or new angle hull
+     */
+    public AngleHull get(final ConvexHull cv, final Angle alpha) {
+        final long[] vertices = vertices(cv);
+        final long fingerprint = fingerprint(vertices);
+        final Key key = new Key(vertices, fingerprint, alpha.rad());
+        final AngleHull cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        final AngleHull hull = this.factory.generateAngleHull(cv, alpha);
+        store(key, hull);
+        return hull;
+    }
+
+    /**
+     * Return the angle hulls of a convex hull for several angles. The missing ones are generated together by
+     * {@link AngleHull.Factory#generateAngleHulls(ConvexHull, ForkJoinPool, Angle...)}.
+     *
+     * @param cv     convex hull
+     * @param pool   to generate the missing angle hulls in
+     * @param alphas fixed angles alpha. Smaller than 180 degrees, bigger than 0 degrees.
+     * @return new list of the cached or new angle hulls in the order of the angles
+     */
+    public List<AngleHull> getAll(final ConvexHull cv, final ForkJoinPool pool, final Angle... alphas) {
+        final long[] vertices = vertices(cv);
+        final long fingerprint = fingerprint(vertices);
+        final List<AngleHull> hulls = new ArrayList<>(alphas.length);
+        final List<Key> missingKeys = new ArrayList<>();
+        final List<Angle> missingAlphas = new ArrayList<>();
+        for (final Angle alpha : alphas) {
+            final Key key = new Key(vertices, fingerprint, alpha.rad());
+            final AngleHull cached = lookup(key);
+            if (cached == null) {
+                missingKeys.add(key);
+                missingAlphas.add(alpha);
+            }
+            hulls.add(cached);
+        }
+        if (!missingKeys.isEmpty()) {
+            final List<AngleHull> generated = this.factory.generateAngleHulls(cv, pool,
+                    missingAlphas.toArray(new Angle[missingAlphas.size()]));
+            int next = 0;
+            for (int i = 0; i < hulls.size(); i++) {
+                if (hulls.get(i) == null) {
+                    hulls.set(i, generated.get(next));
+                    store(missingKeys.get(next), generated.get(next));
+                    next++;
+                }
+            }
+        }
+        return hulls;
+    }
+
+    /**
+     * Return the number of lookups that found a cached angle hull
+     *
+     * @return number of hits
+     */
+    public synchronized long getHitCount() {
+        return this.hits;
+    }
+
+    /**
+     * Return the number of lookups that had to generate the angle hull
+     *
+     * @return number of misses
+     */
+    public synchronized long getMissCount() {
+        return this.misses;
+    }
+
+    /**
+     * Return the number of cached angle hulls
+     *
+     * @return size
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Remove all cached angle hulls. The counters are kept.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+        this.arcs = 0;
+    }
+
+    private synchronized AngleHull lookup(final Key key) {
+        final AngleHull cached = this.entries.get(key);
+        if (cached == null) {
+            this.misses++;
+        } else {
+            this.hits++;
+        }
+        return cached;
+    }
+
+    /**
+     * Cache an angle hull and evict the least recently used ones until the bound holds again. An angle hull of
+     * more arcs than the bound is not cached at all.
+     */
+    private synchronized void store(final Key key, final AngleHull hull) {
+        if (hull.size() > this.maximumArcs) {
+            return;
+        }
+        final AngleHull previous = this.entries.put(key, hull);
+        if (previous != null) {
+            this.arcs -= previous.size();
+        }
+        this.arcs += hull.size();
+        final Iterator<AngleHull> eldest = this.entries.values().iterator();
+        while (this.arcs > this.maximumArcs) {
+            this.arcs -= eldest.next().size();
+            eldest.remove();
+        }
+    }
+
+    private static long[] vertices(final ConvexHull cv) {
+        final List<Point> points = cv.getPoints();
+        final long[] vertices = new long[points.size()];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = PointBuffer.pack(points.get(i));
+        }
+        return vertices;
+    }
+
+    /**
+     * Mix the packed vertices into 64 bits with multiplications by odd constants
+     */
+    private static long fingerprint(final long[] vertices) {
+        long fingerprint = vertices.length;
+        for (final long vertex : vertices) {
+            fingerprint = (fingerprint ^ vertex) * 0x9E3779B97F4A7C15L;
+            fingerprint ^= fingerprint >>> 32;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Vertices of a convex hull and an angle alpha
+     */
+    private static final class Key {
+
+        private final long[] vertices;
+
+        private final long fingerprint;
+
+        private final double alpha;
+
+        private Key(final long[] vertices, final long fingerprint, final double alpha) {
+            this.vertices = vertices;
+            this.fingerprint = fingerprint;
+            this.alpha = alpha;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            final Key key = (Key) o;
+            return this.fingerprint == key.fingerprint
+                    && Double.compare(this.alpha, key.alpha) == 0
+                    && Arrays.equals(this.vertices, key.vertices);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(this.fingerprint) + Double.hashCode(this.alpha);
+        }
+    }
+}
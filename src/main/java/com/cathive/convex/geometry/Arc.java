@@ -3,6 +3,7 @@ package com.cathive.convex.geometry;
 /**
  * Object oriented representation of an arc with a center point Z,
  * a radius r, a start angle rho and an extend angle beta.
+ * The center is held with double precision, as rounding it moves the whole arc.
  * @author Alexander Erben
  */
 class Arc {
@@ -10,7 +11,7 @@ class Arc {
     /**
      * Center point
      */
-    private final Point z;
+    private final double zx, zy;
 
     /**
      * Radius
@@ -29,13 +30,15 @@ class Arc {
 
     /**
      * Private ctor
-     * @param z center
+     * @param zx X value of the center
+     * @param zy Y value of the center
      * @param r radius
      * @param rho start
      * @param beta extent
      */
-    private Arc(Point z, double r, Angle rho, Angle beta) {
-        this.z = z;
+    private Arc(double zx, double zy, double r, Angle rho, Angle beta) {
+        this.zx = zx;
+        this.zy = zy;
         this.r = r;
         this.rho = rho;
         this.beta = beta;
@@ -43,46 +46,136 @@ class Arc {
 
     /**
      * Derive an arc from to touching points A and B and the angle of the
-     * constant bow angle alpha.
-     * @param a first touching point
-     * @param b second touching point
-     * @param alpha bow angle
+     * constant bow angle alpha. Nothing but the arc itself is created. The trigonometric values of alpha
+     * are calculated by the caller, who may reuse them for all arcs of the same alpha.
+     * @param ax X value of the first touching point
+     * @param ay Y value of the first touching point
+     * @param bx X value of the second touching point
+     * @param by Y value of the second touching point
+     * @param alpha bow angle in radians
+     * @param twoTan two times the tangent of alpha
+     * @param twoSin two times the sine of alpha
      * @return resulting arc
      */
-    static Arc of(final Point a, final Point b, final Angle alpha) {
-        final Point m = a.add(b).half();
-        final double d = a.distanceTo(b);
-        final double k = -(d / (2d * Math.tan(alpha.rad())));
-        final double kDivD = k / d;
-        final Point w = Point.of(a.getY() - b.getY(), b.getX() - a.getX()).multiply(kDivD);
-        final Point z = m.add(w);
-        final double r = d / (2d * Math.sin(alpha.rad()));
-        final Point e = Point.of(1, 0);
-        Angle rho = AngleCalculator.angleOf(e, Point.ORIGIN, a.subtract(z));
-        if (a.getY() < z.getY()) {
-            rho = Angle.fromRad(2d * Math.PI - rho.rad());
-        }
-        final Angle beta = Angle.fromRad(2d * (Math.PI - alpha.rad()));
-        return new Arc(z, r, rho, beta);
+    static Arc of(final int ax, final int ay, final int bx, final int by, final double alpha,
+                  final double twoTan, final double twoSin) {
+        final double dx = (double) ax - bx;
+        final double dy = (double) ay - by;
+        // the center lies on the perpendicular bisector of AB, (ay - by, bx - ax) points along it
+        final double zx = ((double) ax + bx) / 2d - dy / twoTan;
+        final double zy = ((double) ay + by) / 2d + dx / twoTan;
+        final double r = Math.sqrt(dx * dx + dy * dy) / twoSin;
+        final double beta = 2d * (Math.PI - alpha);
+        return new Arc(zx, zy, r, Angle.fromRad(normalize(Math.atan2(ay - zy, ax - zx))), Angle.fromRad(beta));
     }
 
     /**
      * Cut this arc using the given rho angles
-     * @param rhos rho_s angle
-     * @param rhoe rho_e angle
+     * @param rhos rho_s angle in radians
+     * @param rhoe rho_e angle in radians
      * @return the cut arc
      */
-    Arc cutArc(final Angle rhos, Angle rhoe){
-        return new Arc(this.z, this.r, this.rho.add(rhos), this.beta.subtract(rhos).subtract(rhoe));
+    Arc cutArc(final double rhos, final double rhoe) {
+        return new Arc(this.zx, this.zy, this.r, Angle.fromRad(this.rho.rad() + rhos),
+                Angle.fromRad(this.beta.rad() - rhos - rhoe));
     }
 
     /**
-     * Apply the values of this arc to the given collector
+     * Correct an approximate rho_s angle, so that the cut arc starts exactly at the given point on the circle
+     * @param px X value of the point
+     * @param py Y value of the point
+     * @param rhos approximate rho_s angle in radians
+     * @return rho_s angle in radians, or the approximate one if the point is not defined
+     */
+    double startAt(final double px, final double py, final double rhos) {
+        final double correction = wrap(Math.atan2(py - this.zy, px - this.zx) - this.rho.rad() - rhos);
+        return Double.isNaN(correction) ? rhos : rhos + correction;
+    }
+
+    /**
+     * Correct an approximate rho_e angle, so that the cut arc ends exactly at the given point on the circle
+     * @param px X value of the point
+     * @param py Y value of the point
+     * @param rhoe approximate rho_e angle in radians
+     * @return rho_e angle in radians, or the approximate one if the point is not defined
+     */
+    double endAt(final double px, final double py, final double rhoe) {
+        final double correction = wrap(Math.atan2(py - this.zy, px - this.zx)
+                - (this.rho.rad() + this.beta.rad() - rhoe));
+        return Double.isNaN(correction) ? rhoe : rhoe - correction;
+    }
+
+    /**
+     * Return the X value of the center
+     * @return X value
+     */
+    double centerX() {
+        return this.zx;
+    }
+
+    /**
+     * Return the Y value of the center
+     * @return Y value
+     */
+    double centerY() {
+        return this.zy;
+    }
+
+    /**
+     * Map an angle to the range from 0 to 2 PI
+     */
+    private static double normalize(final double radians) {
+        return radians < 0 ? radians + 2d * Math.PI : radians;
+    }
+
+    /**
+     * Map an angle to the range from -PI to PI
+     */
+    private static double wrap(final double radians) {
+        return radians - 2d * Math.PI * Math.floor((radians + Math.PI) / (2d * Math.PI));
+    }
+
+    /**
+     * Write the center, the radius and the angles of this arc, see {@link HullCodec}
+     * @param out to write to
+     */
+    void encode(final HullCodec.Writer out) {
+        out.writeDouble(this.zx);
+        out.writeDouble(this.zy);
+        out.writeDouble(this.r);
+        out.writeDouble(this.rho.rad());
+        out.writeDouble(this.beta.rad());
+    }
+
+    /**
+     * Read an arc written by {@link #encode(HullCodec.Writer)}
+     * @param in to read from
+     * @return the arc
+     */
+    static Arc decode(final HullCodec.Reader in) {
+        final double zx = in.readDouble();
+        final double zy = in.readDouble();
+        final double r = in.readDouble();
+        return new Arc(zx, zy, r, Angle.fromRad(in.readDouble()), Angle.fromRad(in.readDouble()));
+    }
+
+    /**
+     * Apply the values of this arc to the given collector, with the center rounded to the nearest point
      * @param collector to apply to
      * @return whatever the collector returns
      */
     <T> T accept(AngleHull.ArcCollector<T> collector){
-        return collector.apply(this.z, this.r, this.beta, this.rho);
+        return collector.apply(Point.of((int) Math.round(this.zx), (int) Math.round(this.zy)), this.r, this.beta,
+                this.rho);
+    }
+
+    /**
+     * Apply the values of this arc to the given collector
+     * @param collector to apply to
+     * @return whatever the collector returns
+     */
+    <T> T accept(AngleHull.PreciseArcCollector<T> collector){
+        return collector.apply(this.zx, this.zy, this.r, this.beta, this.rho);
     }
     
 }
\ No newline at end of file
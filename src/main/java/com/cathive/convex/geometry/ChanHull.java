@@ -0,0 +1,229 @@
+package com.cathive.convex.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Output-sensitive algorithm by Chan that calculates the vertices of the convex hull of n points in O(n log h) time,
+ * where h is the number of vertices of the hull. For point sets with few hull vertices, this is faster than
+ * sorting all points.
+ * <p>
+ * The algorithm guesses an upper bound m for h. The points are split into groups of m points and the hull chains
+ * of each group are calculated by sorting the group. Then, starting from the leftmost point, the upper chain of the
+ * whole set is wrapped like a gift ("Jarvis march"): in each step, the next vertex is the best of the tangent points
+ * of all groups, each found by binary search on the group's chain. The lower chain is wrapped alike, starting from
+ * the rightmost point. If a chain has more than m vertices, the guess was too small and m is squared.
+ * <p>
+ * Points are packed as described in {@link PointBuffer#pack(int, int)}. "Left" and "right" refer to that ordering,
+ * so points with the same X value are ordered by their Y value.
+ *
+ * @author Alexander Erben
+ */
+final class ChanHull {
+
+    /**
+     * The first guess for the number of hull vertices
+     */
+    private static final int INITIAL_GROUP_SIZE = 16;
+
+    /**
+     * The packed points. Sorted per group in each round.
+     */
+    private final long[] points;
+
+    /**
+     * Number of valid elements in {@link #points}
+     */
+    private final int n;
+
+    /**
+     * Upper chains of all groups in ascending order, one after the other
+     */
+    private final long[] upper;
+
+    /**
+     * Lower chains of all groups in descending order, one after the other
+     */
+    private final long[] lower;
+
+    /**
+     * Start index of each group's chain, inclusive
+     */
+    private int[] upperFrom, lowerFrom;
+
+    /**
+     * End index of each group's chain, exclusive
+     */
+    private int[] upperTo, lowerTo;
+
+    private ChanHull(final long[] points, final int n) {
+        this.points = points;
+        this.n = n;
+        this.upper = new long[n];
+        this.lower = new long[n];
+    }
+
+    /**
+     * Calculate the vertices of the convex hull of a set of packed points. Interior points are culled
+     * beforehand, see {@link SortedPointSet#cull(long[], int)}.
+     *
+     * @param points packed points, possibly containing duplicates. Must contain at least one point.
+     *               The array is modified.
+     * @return the vertices of the upper chain from left to right, followed by those of the lower chain from right
+     * to left. The leftmost and rightmost points are contained twice.
+     */
+    static PointBuffer vertices(final long[] points) {
+        final ChanHull hull = new ChanHull(points, SortedPointSet.cull(points, points.length));
+        for (long m = INITIAL_GROUP_SIZE; ; m = m * m) {
+            final PointBuffer vertices = hull.attempt((int) Math.min(m, hull.n));
+            if (vertices != null) {
+                return vertices;
+            }
+        }
+    }
+
+    /**
+     * Try to wrap the hull with at most m vertices per chain
+     *
+     * @param m group size and guess for the number of vertices
+     * @return the hull vertices or <code>null</code> if a chain has more than m vertices
+     */
+    private PointBuffer attempt(final int m) {
+        final int groups = (this.n + m - 1) / m;
+        this.upperFrom = new int[groups];
+        this.upperTo = new int[groups];
+        this.lowerFrom = new int[groups];
+        this.lowerTo = new int[groups];
+        long leftmost = this.points[0];
+        long rightmost = this.points[0];
+        for (int g = 0; g < groups; g++) {
+            final int from = g * m;
+            final int to = Math.min(from + m, this.n);
+            Arrays.sort(this.points, from, to);
+            leftmost = Math.min(leftmost, this.points[from]);
+            rightmost = Math.max(rightmost, this.points[to - 1]);
+            this.upperFrom[g] = from;
+            this.upperTo[g] = chain(from, to, 1, this.upper);
+            this.lowerFrom[g] = from;
+            this.lowerTo[g] = chain(to - 1, from - 1, -1, this.lower);
+        }
+        final PointBuffer vertices = new PointBuffer();
+        if (wrap(this.upper, this.upperFrom, this.upperTo, leftmost, false, m, vertices)
+                && wrap(this.lower, this.lowerFrom, this.lowerTo, rightmost, true, m, vertices)) {
+            return vertices;
+        }
+        return null;
+    }
+
+    /**
+     * Calculate the chain of a sorted group that makes right turns only, discarding collinear points
+     *
+     * @param from   first index of the group to walk over, inclusive
+     * @param to     last index to walk over, exclusive
+     * @param step   1 to walk the group in ascending order (upper chain), -1 for descending order (lower chain)
+     * @param target array to store the chain in, starting at the smaller of the two group bounds
+     * @return end index of the chain in the target array, exclusive
+     */
+    private int chain(final int from, final int to, final int step, final long[] target) {
+        final int start = Math.min(from, to - step);
+        int top = start;
+        for (int i = from; i != to; i += step) {
+            final long next = this.points[i];
+            while (top - start >= 2 && Determinant.ofPacked(target[top - 2], target[top - 1], next) >= 0) {
+                top--;
+            }
+            target[top++] = next;
+        }
+        return top;
+    }
+
+    /**
+     * Wrap one chain of the hull, starting from an extreme point
+     *
+     * @param chains     the chains of all groups
+     * @param from       start indices of the groups' chains
+     * @param to         end indices of the groups' chains
+     * @param start      leftmost point for the upper chain, rightmost point for the lower chain
+     * @param descending false for the upper chain, true for the lower chain
+     * @param maxSteps   maximal number of vertices to add after the start point
+     * @param vertices   to add the vertices to
+     * @return false if the chain has more vertices than allowed
+     */
+    private static boolean wrap(final long[] chains, final int[] from, final int[] to, final long start,
+                                final boolean descending, final int maxSteps, final PointBuffer vertices) {
+        long p = start;
+        vertices.add(p);
+        for (int step = 0; ; step++) {
+            boolean found = false;
+            long best = 0;
+            for (int g = 0; g < from.length; g++) {
+                final int t = tangent(chains, from[g], to[g], p, descending);
+                if (t >= 0 && (!found || better(p, best, chains[t], descending))) {
+                    best = chains[t];
+                    found = true;
+                }
+            }
+            if (!found) {
+                return true;
+            }
+            if (step == maxSteps) {
+                return false;
+            }
+            vertices.add(best);
+            p = best;
+        }
+    }
+
+    /**
+     * Find the point of a group's chain that is the next vertex after p if only the group is regarded. All points
+     * of the chain behind p lie to the right of or on the line from p to the found point.
+     * As the chain only makes right turns, the points are found by binary search: the point after the tangent point
+     * makes a right turn with p and the tangent point, while all points before it do not.
+     *
+     * @param chain      chains of all groups
+     * @param from       start index of the group's chain, inclusive
+     * @param to         end index of the group's chain, exclusive
+     * @param p          current vertex
+     * @param descending true if the chain is sorted in descending order
+     * @return index of the tangent point or -1 if the chain contains no point behind p
+     */
+    private static int tangent(final long[] chain, final int from, final int to, final long p, final boolean descending) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (descending ? chain[mid] < p : chain[mid] > p) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        if (lo == to) {
+            return -1;
+        }
+        hi = to - 1;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (Determinant.ofPacked(p, chain[mid], chain[mid + 1]) >= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Check if the candidate is a better next vertex after p than the current best point. It is better if it lies
+     * to the left of the line from p to the current best point, or on the line but farther away from p.
+     *
+     * @param p          current vertex
+     * @param best       best next vertex found so far
+     * @param candidate  candidate for the next vertex
+     * @param descending true for the lower chain
+     * @return true if the candidate is better
+     */
+    private static boolean better(final long p, final long best, final long candidate, final boolean descending) {
+        final long determinant = Determinant.ofPacked(p, best, candidate);
+        return determinant > 0 || determinant == 0 && (descending ? candidate < best : candidate > best);
+    }
+}
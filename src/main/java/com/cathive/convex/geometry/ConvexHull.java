@@ -1,10 +1,35 @@
 package com.cathive.convex.geometry;
 
+import com.google.common.base.Throwables;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
 
 import static com.cathive.convex.geometry.ConvexHullPart.calculate;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static java.util.stream.Collectors.toList;
 
 
@@ -24,6 +49,28 @@ import static java.util.stream.Collectors.toList;
  */
 public abstract class ConvexHull {
 
+    /**
+     * Minimal number of points processed by a single task of {@link #setupParallel(List, ForkJoinPool)}.
+     * Smaller chunks would drown the fork-join tasks in overhead.
+     */
+    private static final int MIN_PARALLEL_CHUNK = 1 << 14;
+
+    /**
+     * Number of chunks per worker thread of the pool passed to {@link #setupParallel(List, ForkJoinPool)}.
+     * More chunks than threads allow for work stealing if chunks take different time.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Default number of points buffered by a {@link Builder}
+     */
+    private static final int DEFAULT_BUILDER_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Snapshot of the vertices and metrics, created on demand by {@link #snapshot()}
+     */
+    private volatile ConvexHullSnapshot snapshot;
+
     /**
      * Setup a updateable convex hull from points.
      * Depending on the number of points in the set, the correct internal implementation for small
@@ -33,11 +80,411 @@ public abstract class ConvexHull {
      * @return updateable hull
      */
     public static ConvexHull setup(List<Point> pp) {
-        SortedPointSet sorted = SortedPointSet.of(pp);
+        return of(SortedPointSet.of(pp));
+    }
+
+    /**
+     * Setup a updateable convex hull from points. Same as {@link #setup(List)}, but the four segments of the hull
+     * are calculated concurrently by the given executor.
+     *
+     * @param pp       to setup from
+     * @param executor to calculate the segments of the hull with
+     * @return updateable hull
+     */
+    public static ConvexHull setup(List<Point> pp, Executor executor) {
+        return of(SortedPointSet.of(pp), executor);
+    }
+
+    /**
+     * Setup a updateable convex hull from coordinate arrays. The i-th point is made up of <code>xs[i]</code>
+     * and <code>ys[i]</code>. In contrast to {@link #setup(List)}, the points are processed as primitive values
+     * throughout the algorithm, so {@link Point} objects are only created for the vertices of the resulting hull.
+     *
+     * @param xs X values of the points
+     * @param ys Y values of the points
+     * @param n  number of points to read from the arrays
+     * @return updateable hull
+     */
+    public static ConvexHull setup(int[] xs, int[] ys, int n) {
+        return of(SortedPointSet.of(xs, ys, n));
+    }
+
+    /**
+     * Setup a updateable convex hull from points that keeps all of them, including the points inside of the hull.
+     * So removing points by {@link #update(Collection, Collection)} gives the same hull as {@link #setup(List)}
+     * of the remaining points, see there. The hulls returned by updates keep all of their points as well.
+     *
+     * @param pp to setup from
+     * @return updateable hull
+     */
+    public static ConvexHull setupForDeltaUpdates(List<Point> pp) {
+        return of(SortedPointSet.of(pp), directExecutor(), true);
+    }
+
+    /**
+     * Setup a updateable convex hull from points using all threads of the given pool.
+     * The points are split into chunks. For each chunk, the hull is calculated independently. The vertices
+     * of the partial hulls are then merged pairwise in a tree reduction, each merge calculating the hull of the
+     * vertices of two partial hulls. The result is the same as for {@link #setup(List)}.
+     *
+     * @param pp   to setup from
+     * @param pool to run the tasks in
+     * @return updateable hull
+     */
+    public static ConvexHull setupParallel(List<Point> pp, ForkJoinPool pool) {
+        final int chunk = Math.max(MIN_PARALLEL_CHUNK, pp.size() / (pool.getParallelism() * CHUNKS_PER_THREAD) + 1);
+        if (pp.size() <= chunk) {
+            return setup(pp);
+        }
+        return ofVertices(pool.invoke(new PartialHullTask(pp, chunk)), () -> setup(pp));
+    }
+
+    /**
+     * Setup a updateable convex hull from points with the output-sensitive algorithm of Chan, see {@link ChanHull}.
+     * It runs in O(n log h) time, where h is the number of vertices of the hull, and is thus faster than
+     * {@link #setup(List)} for large point sets with few hull vertices that are not uniformly distributed.
+     * The result is the same.
+     *
+     * @param pp to setup from
+     * @return updateable hull
+     */
+    public static ConvexHull setupOutputSensitive(List<Point> pp) {
+        if (pp.size() < 4) {
+            return setup(pp);
+        }
+        final long[] packed = PointBuffer.pack(pp);
+        return ofVertices(ChanHull.vertices(packed), () -> setup(pp));
+    }
+
+    /**
+     * Setup a updateable convex hull from coordinate arrays with the output-sensitive algorithm of Chan.
+     * See {@link #setupOutputSensitive(List)} and {@link #setup(int[], int[], int)}.
+     *
+     * @param xs X values of the points
+     * @param ys Y values of the points
+     * @param n  number of points to read from the arrays
+     * @return updateable hull
+     */
+    public static ConvexHull setupOutputSensitive(int[] xs, int[] ys, int n) {
+        if (n < 4) {
+            return setup(xs, ys, n);
+        }
+        final long[] packed = PointBuffer.pack(xs, ys, n);
+        return ofVertices(ChanHull.vertices(packed), () -> setup(xs, ys, n));
+    }
+
+    /**
+     * Setup a convex hull that approximates the hull of the points in linear time, see {@link StripHull}.
+     * Every vertex of the exact hull is closer than epsilon to the approximation, and every vertex of the
+     * approximation is one of the points. Updates of the hull start from the points the approximation was
+     * calculated from. If there would be more strips than points, or less than 4 points are kept, the exact hull
+     * is calculated by {@link #setup(List)} instead.
+     *
+     * @param pp      to setup from
+     * @param epsilon maximal distance of a vertex of the exact hull to the approximation. Must be positive.
+     * @return updateable hull
+     */
+    public static ConvexHull setupApproximate(List<Point> pp, double epsilon) {
+        checkArgument(epsilon > 0, "Epsilon must be positive");
+        if (pp.size() < 4) {
+            return setup(pp);
+        }
+        return ofCandidates(StripHull.candidates(pp, epsilon), () -> setup(pp));
+    }
+
+    /**
+     * Setup a convex hull that approximates the hull of the points given by coordinate arrays in linear time.
+     * See {@link #setupApproximate(List, double)} and {@link #setup(int[], int[], int)}.
+     *
+     * @param xs      X values of the points
+     * @param ys      Y values of the points
+     * @param n       number of points to read from the arrays
+     * @param epsilon maximal distance of a vertex of the exact hull to the approximation. Must be positive.
+     * @return updateable hull
+     */
+    public static ConvexHull setupApproximate(int[] xs, int[] ys, int n, double epsilon) {
+        checkArgument(epsilon > 0, "Epsilon must be positive");
+        if (n < 4) {
+            return setup(xs, ys, n);
+        }
+        return ofCandidates(StripHull.candidates(xs, ys, n, epsilon), () -> setup(xs, ys, n));
+    }
+
+    /**
+     * Setup the hulls of many independent groups of points in parallel. The groups are distributed to the threads
+     * of the pool in batches of about {@value #MIN_PARALLEL_CHUNK} points, so that the overhead of a task is shared
+     * by many small groups. Each hull is the same as the one returned by {@link #setup(List)} for its group.
+     *
+     * @param groups points by their group
+     * @param pool   to run the tasks in
+     * @param <K>    type of the keys of the groups
+     * @return new map of the hulls of the groups in the iteration order of the passed map
+     */
+    public static <K> Map<K, ConvexHull> setupAll(Map<K, ? extends List<Point>> groups, ForkJoinPool pool) {
+        final List<K> keys = new ArrayList<>(groups.keySet());
+        final List<List<Point>> points = new ArrayList<>(groups.values());
+        final long[] offsets = new long[points.size() + 1];
+        for (int i = 0; i < points.size(); i++) {
+            offsets[i + 1] = offsets[i] + points.get(i).size();
+        }
+        final ConvexHull[] hulls = new ConvexHull[points.size()];
+        pool.invoke(new BatchTask(offsets, group -> setup(points.get(group)), hulls, 0, hulls.length));
+        final Map<K, ConvexHull> result = new LinkedHashMap<>();
+        for (int i = 0; i < hulls.length; i++) {
+            result.put(keys.get(i), hulls[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Setup the hulls of many independent groups of points given by coordinate arrays and a key column in parallel.
+     * The i-th point is made up of <code>xs[i]</code> and <code>ys[i]</code> and belongs to the group
+     * <code>keys[i]</code>. The points of a group do not have to be contiguous in the arrays. The points are
+     * distributed to their groups as primitive values in two passes over the arrays, then the groups are processed
+     * as by {@link #setupAll(Map, ForkJoinPool)}.
+     *
+     * @param keys group of each point
+     * @param xs   X values of the points
+     * @param ys   Y values of the points
+     * @param n    number of points to read from the arrays
+     * @param pool to run the tasks in
+     * @return new map of the hulls of the groups in the order of the first occurrence of their keys
+     */
+    public static Map<Integer, ConvexHull> setupAll(int[] keys, int[] xs, int[] ys, int n, ForkJoinPool pool) {
+        checkArgument(n >= 0 && n <= keys.length && n <= xs.length && n <= ys.length,
+                "n must be between 0 and the array lengths");
+        final Map<Integer, Integer> groupOfKey = new LinkedHashMap<>();
+        final int[] groupOfPoint = new int[n];
+        int[] sizes = new int[16];
+        for (int i = 0; i < n; i++) {
+            // consecutive points of the same group are common and need no lookup
+            final int group = i > 0 && keys[i] == keys[i - 1] ? groupOfPoint[i - 1]
+                    : groupOfKey.computeIfAbsent(keys[i], key -> groupOfKey.size());
+            if (group == sizes.length) {
+                sizes = Arrays.copyOf(sizes, 2 * sizes.length);
+            }
+            groupOfPoint[i] = group;
+            sizes[group]++;
+        }
+        final long[][] packed = new long[groupOfKey.size()][];
+        final long[] offsets = new long[packed.length + 1];
+        for (int group = 0; group < packed.length; group++) {
+            packed[group] = new long[sizes[group]];
+            offsets[group + 1] = offsets[group] + sizes[group];
+            sizes[group] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            final int group = groupOfPoint[i];
+            packed[group][sizes[group]++] = PointBuffer.pack(xs[i], ys[i]);
+        }
+        final ConvexHull[] hulls = new ConvexHull[packed.length];
+        pool.invoke(new BatchTask(offsets, group -> of(SortedPointSet.of(packed[group], packed[group].length)),
+                hulls, 0, hulls.length));
+        final Map<Integer, ConvexHull> result = new LinkedHashMap<>();
+        for (final Map.Entry<Integer, Integer> entry : groupOfKey.entrySet()) {
+            result.put(entry.getKey(), hulls[entry.getValue()]);
+        }
+        return result;
+    }
+
+    /**
+     * Merge two hulls into the hull of the points of both, for instance partial hulls calculated by different threads
+     * or processes. Instead of sorting all points again, the upper and the lower chains of both hulls, which are
+     * already sorted, are merged, and the hull of the merged chains is calculated in O(h1 + h2) time.
+     * <p>
+     * Only the vertices of the merged hull are kept, like for a hull built by a {@link Builder}. So merging is
+     * associative and commutative, and the hull of no points is its identity: the result does not depend on how
+     * the hulls are grouped, which makes this method suitable as the combiner of a reduction,
+     * see also {@link #toConvexHull()}.
+     *
+     * @param a hull to merge
+     * @param b hull to merge
+     * @return updateable hull of the points of both hulls
+     */
+    public static ConvexHull merge(final ConvexHull a, final ConvexHull b) {
+        final long[][] chainsOfA = a.sortedChains();
+        final long[][] chainsOfB = b.sortedChains();
+        final long[] uppers = SortedPointSet.union(chainsOfA[0], chainsOfB[0]);
+        final long[] lowers = SortedPointSet.union(chainsOfA[1], chainsOfB[1]);
+        if (uppers.length < 4 && lowers.length < 4) {
+            final long[] union = SortedPointSet.union(uppers, lowers);
+            if (union.length < 4) {
+                // hulls of at most 3 points keep all of them
+                final List<Point> sorted = SortedPointSet.ofSorted(union).asList();
+                return a.moreThanThreePoints() || b.moreThanThreePoints() ? new SmallState(degenerate(sorted), true)
+                        : new SmallState(sorted);
+            }
+        }
+        // the upper chain of the merged hull only depends on the upper chains of both hulls, likewise for the lower
+        final long[] upper = chain(uppers, -1);
+        final long[] lower = chain(lowers, 1);
+        final SortedPointSet vertices = SortedPointSet.ofSorted(SortedPointSet.union(upper, lower));
+        if (vertices.size() < 4) {
+            return new SmallState(degenerate(vertices.asList()), true);
+        }
+        return BigState.initial(vertices, directExecutor(), false);
+    }
+
+    /**
+     * Calculate a chain of the hull of sorted points with the monotone chain algorithm of Andrew in O(n) time.
+     * Points on the edges of the hull are no vertices.
+     *
+     * @param sorted packed points in ascending order without duplicates
+     * @param turn   sign of the determinant of three consecutive vertices: -1 for the upper chain,
+     *               which turns clockwise, 1 for the lower one
+     * @return packed vertices of the chain in ascending order
+     */
+    private static long[] chain(final long[] sorted, final int turn) {
+        final long[] chain = new long[sorted.length];
+        int size = 0;
+        for (final long point : sorted) {
+            while (size > 1 && Long.signum(Determinant.ofPacked(chain[size - 2], chain[size - 1], point)) != turn) {
+                size--;
+            }
+            chain[size++] = point;
+        }
+        return Arrays.copyOf(chain, size);
+    }
+
+    /**
+     * Return a collector that calculates the hull of a stream of points with a {@link Builder} per thread.
+     * The builders of different threads are combined by {@link Builder#combine(Builder)}.
+     *
+     * @return new collector
+     */
+    public static Collector<Point, Builder, ConvexHull> toConvexHull() {
+        return Collector.of(ConvexHull::builder, Builder::accept, Builder::combine, Builder::build,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Create a builder that calculates the hull of a stream of points with a buffer of
+     * {@value #DEFAULT_BUILDER_BUFFER_SIZE} points.
+     *
+     * @return new builder
+     */
+    public static Builder builder() {
+        return builder(DEFAULT_BUILDER_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a builder that calculates the hull of a stream of points, see {@link Builder}.
+     *
+     * @param bufferSize number of points that are buffered before the buffer is reduced to the vertices of the
+     *                   hull. Must be at least 8.
+     * @return new builder
+     */
+    public static Builder builder(int bufferSize) {
+        checkArgument(bufferSize >= 8, "The buffer size must be at least 8");
+        return new Builder(bufferSize);
+    }
+
+    /**
+     * Setup the hull from the vertices of the hull of a point set, which is cheaper than from the point set itself.
+     * If there are less than 4 vertices, the hull is degenerate and the order of the points depends on the full
+     * point set, so the fallback is used to calculate the hull.
+     *
+     * @param vertices of the hull, possibly containing duplicates
+     * @param fallback to calculate the hull from the full point set
+     * @return updateable hull
+     */
+    private static ConvexHull ofVertices(PointBuffer vertices, Supplier<ConvexHull> fallback) {
+        final SortedPointSet sorted = SortedPointSet.ofUnculled(vertices);
         if (sorted.size() < 4) {
-            return new SmallState(sorted.asList());
+            return fallback.get();
         }
-        return BigState.initial(Outline.of(sorted));
+        return BigState.initial(sorted, directExecutor(), false);
+    }
+
+    /**
+     * Setup the hull from the points kept by an approximation
+     *
+     * @param candidates kept points, or <code>null</code> if the approximation does not pay off
+     * @param fallback   to calculate the exact hull from the full point set
+     * @return updateable hull
+     */
+    private static ConvexHull ofCandidates(PointBuffer candidates, Supplier<ConvexHull> fallback) {
+        if (candidates == null) {
+            return fallback.get();
+        }
+        final SortedPointSet sorted = SortedPointSet.of(candidates);
+        if (sorted.size() < 4) {
+            return fallback.get();
+        }
+        return BigState.initial(sorted, directExecutor(), false);
+    }
+
+    /**
+     * Calculate the vertices of the hull of a sorted point set. If the set contains less than 4 points,
+     * all of them are returned.
+     *
+     * @param sorted point set
+     * @return packed vertices of the hull, possibly containing duplicates
+     */
+    static PointBuffer vertices(SortedPointSet sorted) {
+        if (sorted.size() < 4) {
+            return sorted.asBuffer();
+        }
+        final PointBuffer vertices = new PointBuffer();
+        final Outline outline = Outline.of(sorted);
+        for (final Region region : Region.values()) {
+            vertices.addAll(ConvexHullPart.chain(outline.partForRegion(region)));
+        }
+        return vertices;
+    }
+
+    /**
+     * Calculate the hull of at most 3 points, which is a triangle, a line or a single point, in the order of
+     * {@link #getPoints()}
+     *
+     * @param sorted distinct points in ascending order, possibly including a point on the line between the others
+     * @return vertices
+     */
+    static List<Point> degenerate(final List<Point> sorted) {
+        if (sorted.size() < 3) {
+            return sorted;
+        }
+        final long determinant = Determinant.of(sorted.get(0), sorted.get(1), sorted.get(2));
+        if (determinant == 0) {
+            return Arrays.asList(sorted.get(0), sorted.get(2));
+        }
+        return determinant < 0 ? sorted : Arrays.asList(sorted.get(0), sorted.get(2), sorted.get(1));
+    }
+
+    /**
+     * Select the internal implementation matching the size of the sorted point set
+     *
+     * @param sorted point set
+     * @return updateable hull
+     */
+    private static ConvexHull of(SortedPointSet sorted) {
+        return of(sorted, directExecutor());
+    }
+
+    /**
+     * Select the internal implementation matching the size of the sorted point set
+     *
+     * @param sorted   point set
+     * @param executor to calculate the segments of the hull with
+     * @return updateable hull
+     */
+    private static ConvexHull of(SortedPointSet sorted, Executor executor) {
+        return of(sorted, executor, false);
+    }
+
+    /**
+     * Select the internal implementation matching the size of the sorted point set
+     *
+     * @param sorted     point set
+     * @param executor   to calculate the segments of the hull with
+     * @param keepPoints whether the hull keeps all points, see {@link #setupForDeltaUpdates(List)}
+     * @return updateable hull
+     */
+    private static ConvexHull of(SortedPointSet sorted, Executor executor, boolean keepPoints) {
+        if (sorted.size() < 4) {
+            return new SmallState(sorted.asList(), false, keepPoints);
+        }
+        return BigState.initial(sorted, executor, keepPoints);
     }
 
     /**
@@ -46,14 +493,360 @@ public abstract class ConvexHull {
      * @param pp new points
      * @return updated hull
      */
-    public abstract ConvexHull update(List<Point> pp);
+    public ConvexHull update(List<Point> pp) {
+        return update(pp, directExecutor());
+    }
 
     /**
-     * Return the points of which the hull is comprised.
+     * Return a new updateable hull with updated points. The segments of the hull that need to be recalculated
+     * are calculated concurrently by the given executor.
+     *
+     * @param pp       new points
+     * @param executor to calculate the segments of the hull with
+     * @return updated hull
+     */
+    public abstract ConvexHull update(List<Point> pp, Executor executor);
+
+    /**
+     * Return a new updateable hull in which points are added to and removed from the points of this hull.
+     * Points that are added and removed at the same time are removed.
+     * In contrast to {@link #update(List)}, only the added and removed points are sorted, and only the segments
+     * of the hull that the points can affect are recalculated.
+     * <p>
+     * Only hulls set up by {@link #setupForDeltaUpdates(List)} and the hulls updated from them keep all of their
+     * points. The other hulls of more than 3 points keep the points that may become vertices when points are added,
+     * but not the points inside of the hull, which would take memory proportional to the input. As removing a vertex
+     * may expose the dropped points, points cannot be removed from such hulls.
+     *
+     * @param added   points to add
+     * @param removed points to remove
+     * @return updated hull
+     * @throws IllegalStateException if points are removed from a hull that does not keep all of its points
+     */
+    public ConvexHull update(Collection<Point> added, Collection<Point> removed) {
+        return update(added, removed, directExecutor());
+    }
+
+    /**
+     * Return a new updateable hull in which points are added to and removed from the points of this hull.
+     * See {@link #update(Collection, Collection)}. The segments of the hull that need to be recalculated are
+     * calculated concurrently by the given executor.
+     *
+     * @param added    points to add
+     * @param removed  points to remove
+     * @param executor to calculate the segments of the hull with
+     * @return updated hull
+     */
+    public abstract ConvexHull update(Collection<Point> added, Collection<Point> removed, Executor executor);
+
+    /**
+     * Check that points can be removed from this hull, see {@link #update(Collection, Collection)}
+     *
+     * @param removed    points to remove
+     * @param keepPoints whether the hull keeps all of its points
+     */
+    private static void checkRemovable(final Collection<Point> removed, final boolean keepPoints) {
+        checkState(removed.isEmpty() || keepPoints,
+                "Points can only be removed from hulls set up by setupForDeltaUpdates");
+    }
+
+    /**
+     * Return the points of which the hull is comprised. They are calculated once, see {@link #snapshot()}.
+     *
+     * @return unmodifiable list of the points
+     */
+    public List<Point> getPoints() {
+        return snapshot().getPoints();
+    }
+
+    /**
+     * Return the snapshot of the vertices and the metrics of this hull. As the hull is immutable, the snapshot is
+     * created on the first call only, later calls return the same snapshot.
+     *
+     * @return snapshot
+     */
+    public ConvexHullSnapshot snapshot() {
+        ConvexHullSnapshot snapshot = this.snapshot;
+        if (snapshot == null) {
+            // racing threads may create equal snapshots, of which one is kept
+            snapshot = new ConvexHullSnapshot(calculatePoints());
+            this.snapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Calculate the points of which the hull is comprised, see {@link #getPoints()}
      *
      * @return points
      */
-    public abstract List<Point> getPoints();
+    abstract List<Point> calculatePoints();
+
+    /**
+     * Check whether the hull was calculated from more than 3 distinct points. Only then, the hull may be degenerate,
+     * see {@link #degenerate(List)}.
+     *
+     * @return true if more than 3 distinct points
+     */
+    abstract boolean moreThanThreePoints();
+
+    /**
+     * Write the header and the state of this hull, see {@link HullCodec}
+     *
+     * @param out to write to
+     */
+    abstract void encode(HullCodec.Writer out);
+
+    /**
+     * Read the state of a hull written by {@link #encode(HullCodec.Writer)}
+     *
+     * @param in   to read from, positioned behind the header
+     * @param kind of the encoded hull, read from the header
+     * @return decoded hull
+     */
+    static ConvexHull decode(final HullCodec.Reader in, final int kind) {
+        switch (kind) {
+            case HullCodec.SMALL_CONVEX_HULL:
+                final boolean moreThanThreePoints = in.readBoolean();
+                final boolean keepPoints = in.readBoolean();
+                return new SmallState(in.readPointBuffer().toPoints(), moreThanThreePoints, keepPoints);
+            case HullCodec.BIG_CONVEX_HULL:
+                return BigState.decode(in);
+            default:
+                throw new IllegalArgumentException("The buffer does not hold a convex hull");
+        }
+    }
+
+    /**
+     * Return the upper and the lower chain of the hull in ascending order. For hulls of more than 3 points,
+     * {@link #getPoints()} returns the upper chain in ascending order followed by the lower chain in descending order.
+     * Hulls of at most 3 points return all of them as both chains.
+     *
+     * @return packed vertices of the upper and the lower chain in ascending order without duplicates
+     */
+    private long[][] sortedChains() {
+        final List<Point> points = getPoints();
+        if (points.size() < 4) {
+            final long[] sorted = SortedPointSet.sortedDistinct(points);
+            return new long[][]{sorted, sorted};
+        }
+        final long[] packed = PointBuffer.pack(points);
+        int greatest = 0;
+        for (int i = 1; i < packed.length; i++) {
+            if (packed[i] > packed[greatest]) {
+                greatest = i;
+            }
+        }
+        final long[] lower = new long[packed.length - greatest + 1];
+        lower[0] = packed[0];
+        for (int i = 1; i < lower.length; i++) {
+            lower[i] = packed[packed.length - i];
+        }
+        return new long[][]{Arrays.copyOf(packed, greatest + 1), lower};
+    }
+
+    /**
+     * Calculates the hull of a stream of points that does not need to fit into memory. Accepted points are
+     * buffered. Whenever the buffer is full, it is reduced to the vertices of the hull of the buffered points,
+     * which also contain the vertices of the hull of all points accepted so far. So the memory used is bounded by
+     * the buffer size or twice the number of vertices of the hull, whichever is greater.
+     * <p>
+     * As the points inside of the hull are discarded, a hull built by {@link #build()} only knows the vertices
+     * of the hull, so {@link ConvexHull#update(Collection, Collection)} cannot remove points from it.
+     * <p>
+     * This class is not thread-safe.
+     */
+    public static final class Builder implements Consumer<Point> {
+
+        /**
+         * The buffered points. Only the first {@link #size} elements are valid.
+         */
+        private long[] buffer;
+
+        /**
+         * Number of buffered points
+         */
+        private int size;
+
+        /**
+         * Whether more than 3 distinct points were accepted. Only then, the hull may be degenerate, see
+         * {@link ConvexHull#degenerate(List)}.
+         */
+        private boolean moreThanThreePoints;
+
+        private Builder(final int bufferSize) {
+            this.buffer = new long[bufferSize];
+        }
+
+        /**
+         * Accept a point given by its coordinates. No {@link Point} object is created.
+         *
+         * @param x X value
+         * @param y Y value
+         */
+        public void accept(final int x, final int y) {
+            accept(PointBuffer.pack(x, y));
+        }
+
+        private void accept(final long packed) {
+            if (this.size == this.buffer.length) {
+                compact();
+            }
+            this.buffer[this.size++] = packed;
+        }
+
+        /**
+         * Accept a point
+         *
+         * @param point to accept
+         */
+        @Override
+        public void accept(final Point point) {
+            accept(point.getX(), point.getY());
+        }
+
+        /**
+         * Accept all remaining points of a spliterator
+         *
+         * @param points to accept
+         */
+        public void acceptAll(final Spliterator<Point> points) {
+            points.forEachRemaining(this);
+        }
+
+        /**
+         * Accept a chunk of points given by coordinate arrays. The i-th point is made up of <code>xs[i]</code>
+         * and <code>ys[i]</code>.
+         *
+         * @param xs X values
+         * @param ys Y values
+         * @param n  number of points to read from the arrays
+         */
+        public void acceptAll(final int[] xs, final int[] ys, final int n) {
+            checkArgument(n >= 0 && n <= xs.length && n <= ys.length, "n must be between 0 and the array lengths");
+            for (int i = 0; i < n; i++) {
+                accept(xs[i], ys[i]);
+            }
+        }
+
+        /**
+         * Accept all points accepted by another builder. The other builder is reduced to the vertices of its hull
+         * first, so that only these are copied.
+         *
+         * @param other builder whose points are accepted
+         * @return this builder
+         */
+        public Builder combine(final Builder other) {
+            other.compact();
+            this.moreThanThreePoints |= other.moreThanThreePoints;
+            for (int i = 0; i < other.size; i++) {
+                accept(other.buffer[i]);
+            }
+            return this;
+        }
+
+        /**
+         * Create a snapshot of the hull of all points accepted so far. The builder can be used further.
+         *
+         * @return updateable hull
+         */
+        public ConvexHull build() {
+            compact();
+            final SortedPointSet sorted = SortedPointSet.of(Arrays.copyOf(this.buffer, this.size), this.size);
+            if (sorted.size() < 4 && this.moreThanThreePoints) {
+                return new SmallState(degenerate(sorted.asList()), true);
+            }
+            return of(sorted);
+        }
+
+        /**
+         * Reduce the buffer to the vertices of the hull of the buffered points. If more than half of the buffer
+         * remains occupied, it is enlarged so that reducing it does not happen for every accepted point.
+         */
+        private void compact() {
+            final SortedPointSet sorted = SortedPointSet.of(this.buffer, this.size);
+            this.moreThanThreePoints |= sorted.size() > 3;
+            final PointBuffer vertices = vertices(sorted);
+            if (vertices.size() > this.buffer.length / 2) {
+                this.buffer = new long[2 * vertices.size()];
+            }
+            for (int i = 0; i < vertices.size(); i++) {
+                this.buffer[i] = vertices.get(i);
+            }
+            this.size = vertices.size();
+        }
+    }
+
+    /**
+     * Calculates the vertices of the hull of a range of points. Ranges larger than the chunk size are split
+     * in halves that are processed in parallel. The vertices of the halves' hulls are merged by calculating
+     * their hull again.
+     */
+    private static final class PartialHullTask extends RecursiveTask<PointBuffer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Point> points;
+        private final int chunk;
+
+        private PartialHullTask(final List<Point> points, final int chunk) {
+            this.points = points;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected PointBuffer compute() {
+            if (this.points.size() <= this.chunk) {
+                return vertices(SortedPointSet.of(this.points));
+            }
+            final int middle = this.points.size() / 2;
+            final PartialHullTask left = new PartialHullTask(this.points.subList(0, middle), this.chunk);
+            left.fork();
+            final PointBuffer merged = new PartialHullTask(this.points.subList(middle, this.points.size()), this.chunk).compute();
+            merged.addAll(left.join());
+            return vertices(SortedPointSet.of(merged));
+        }
+    }
+
+    /**
+     * Task of {@link #setupAll(Map, ForkJoinPool)} that sets up the hulls of a range of groups. The range is split
+     * in halves until it contains a single group or not more than {@link #MIN_PARALLEL_CHUNK} points.
+     */
+    private static final class BatchTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Number of points of all groups before a group, and the total number of points as the last element
+         */
+        private final long[] offsets;
+        private final IntFunction<ConvexHull> setup;
+        private final ConvexHull[] hulls;
+        private final int from;
+        private final int to;
+
+        private BatchTask(final long[] offsets, final IntFunction<ConvexHull> setup, final ConvexHull[] hulls,
+                          final int from, final int to) {
+            this.offsets = offsets;
+            this.setup = setup;
+            this.hulls = hulls;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= 1 || this.offsets[this.to] - this.offsets[this.from] <= MIN_PARALLEL_CHUNK) {
+                for (int group = this.from; group < this.to; group++) {
+                    this.hulls[group] = this.setup.apply(group);
+                }
+                return;
+            }
+            final int middle = (this.from + this.to) >>> 1;
+            invokeAll(new BatchTask(this.offsets, this.setup, this.hulls, this.from, middle),
+                    new BatchTask(this.offsets, this.setup, this.hulls, middle, this.to));
+        }
+    }
 
     /**
      * This state represents a hull with less than 4 points. No algorithm has to be applied in that case.
@@ -61,23 +854,67 @@ public abstract class ConvexHull {
     private static class SmallState extends ConvexHull {
         private final List<Point> points;
 
+        /**
+         * Whether the points are the vertices of the degenerate hull of more than 3 distinct points
+         */
+        private final boolean moreThanThreePoints;
+
+        /**
+         * Whether the hulls returned by updates keep all of their points, see {@link #setupForDeltaUpdates(List)}
+         */
+        private final boolean keepPoints;
+
         private SmallState(List<Point> points) {
+            this(points, false);
+        }
+
+        private SmallState(List<Point> points, boolean moreThanThreePoints) {
+            this(points, moreThanThreePoints, false);
+        }
+
+        private SmallState(List<Point> points, boolean moreThanThreePoints, boolean keepPoints) {
             this.points = points;
+            this.moreThanThreePoints = moreThanThreePoints;
+            this.keepPoints = keepPoints;
         }
 
         @Override
-        public List<Point> getPoints() {
+        boolean moreThanThreePoints() {
+            return this.moreThanThreePoints;
+        }
+
+        @Override
+        void encode(final HullCodec.Writer out) {
+            out.writeHeader(HullCodec.SMALL_CONVEX_HULL);
+            out.writeBoolean(this.moreThanThreePoints);
+            out.writeBoolean(this.keepPoints);
+            out.writePoints(this.points);
+        }
+
+        @Override
+        List<Point> calculatePoints() {
             return this.points;
         }
 
         @Override
-        public ConvexHull update(final List<Point> pp) {
+        public ConvexHull update(final List<Point> pp, final Executor executor) {
             if (pp.size() < 4) {
-                return new SmallState(pp);
+                return new SmallState(pp, false, this.keepPoints);
             } else {
-                return BigState.initial(Outline.of(SortedPointSet.of(pp)));
+                return of(SortedPointSet.of(pp), executor, this.keepPoints);
             }
         }
+
+        @Override
+        public ConvexHull update(final Collection<Point> added, final Collection<Point> removed,
+                                 final Executor executor) {
+            // the points of a degenerate hull of more than 3 points are its vertices only
+            checkRemovable(removed, this.keepPoints || !this.moreThanThreePoints);
+            final Set<Point> points = new LinkedHashSet<>(this.points);
+            points.addAll(added);
+            points.removeAll(removed);
+            return of(SortedPointSet.of(new ArrayList<>(points)), executor, this.keepPoints);
+        }
     }
 
     /**
@@ -90,52 +927,149 @@ public abstract class ConvexHull {
      */
     private static class BigState extends ConvexHull {
 
+        /**
+         * The points the hull was calculated from if the hull keeps all of its points, see
+         * {@link #setupForDeltaUpdates(List)}, otherwise <code>null</code>. Then the points of
+         * {@link #previousOutline} are all that {@link #update(Collection, Collection, Executor)} regards.
+         */
+        private final SortedPointSet points;
         private final Outline previousOutline;
         private final EnumMap<Region, ConvexHullPart> convexHullParts;
 
-        private BigState(final Outline previousOutline, final EnumMap<Region, ConvexHullPart> convexHullParts) {
+        private BigState(final SortedPointSet points, final Outline previousOutline,
+                         final EnumMap<Region, ConvexHullPart> convexHullParts) {
             for (final Region region : Region.values()) {
                 checkArgument(convexHullParts.containsKey(region), "Region not defined: " + region);
             }
+            this.points = points;
             this.previousOutline = previousOutline;
             this.convexHullParts = convexHullParts;
         }
 
-        private static BigState initial(Outline initial) {
-            final EnumMap<Region, ConvexHullPart> parts = new EnumMap<>(Region.class);
+        private static BigState initial(SortedPointSet points, Executor executor, boolean keepPoints) {
+            final Outline initial = Outline.of(points);
+            final EnumMap<Region, CompletableFuture<ConvexHullPart>> parts = new EnumMap<>(Region.class);
             for (final Region region : Region.values()) {
-                parts.put(region, calculate(initial.partForRegion(region)));
+                parts.put(region, supplyAsync(() -> calculate(initial.partForRegion(region)), executor));
             }
-            return new BigState(initial, parts);
+            return new BigState(keepPoints ? points : null, initial, join(parts));
         }
 
         @Override
-        public ConvexHull update(final List<Point> newPoints) {
+        public ConvexHull update(final List<Point> newPoints, final Executor executor) {
+            final boolean keepPoints = this.points != null;
             if (newPoints.size() < 4) {
-                return new SmallState(newPoints);
+                return new SmallState(newPoints, false, keepPoints);
+            }
+            final SortedPointSet sorted = SortedPointSet.of(newPoints);
+            if (sorted.size() < 4) {
+                return new SmallState(sorted.asList(), false, keepPoints);
+            }
+            final Outline newOutline = Outline.of(sorted);
+            final EnumMap<Region, CompletableFuture<ConvexHullPart>> parts = new EnumMap<>(Region.class);
+            for (final Region region : Region.values()) {
+                parts.put(region, newPart(newOutline, region, executor));
+            }
+            return new BigState(keepPoints ? sorted : null, newOutline, join(parts));
+        }
+
+        @Override
+        public ConvexHull update(final Collection<Point> added, final Collection<Point> removed,
+                                 final Executor executor) {
+            final boolean keepPoints = this.points != null;
+            checkRemovable(removed, keepPoints);
+            final long[] addedPoints = SortedPointSet.sortedDistinct(added);
+            final long[] removedPoints = SortedPointSet.sortedDistinct(removed);
+            final SortedPointSet points = keepPoints ? this.points : this.previousOutline.points();
+            if (removedPoints.length > 0 && points.culled() > 0) {
+                // culled points may become vertices, so all parts are calculated from scratch once
+                return of(points.withCulledPoints().update(addedPoints, removedPoints), executor, keepPoints);
+            }
+            final SortedPointSet sorted = points.update(addedPoints, removedPoints);
+            if (sorted == points) {
+                return this;
+            }
+            if (sorted.size() < 4) {
+                return new SmallState(sorted.asList(), false, keepPoints);
             }
-            final Outline newOutline = Outline.of(SortedPointSet.of(newPoints));
+            final EnumSet<Region> affected = EnumSet.noneOf(Region.class);
+            for (final Region region : Region.values()) {
+                if (this.previousOutline.isAffectedBy(region, addedPoints, removedPoints)) {
+                    affected.add(region);
+                }
+            }
+            final Outline newOutline = this.previousOutline.update(sorted, affected);
+            final EnumMap<Region, CompletableFuture<ConvexHullPart>> parts = new EnumMap<>(Region.class);
+            for (final Region region : Region.values()) {
+                parts.put(region, affected.contains(region) ?
+                        supplyAsync(() -> calculate(newOutline.partForRegion(region)), executor) :
+                        completedFuture(this.convexHullParts.get(region)));
+            }
+            return new BigState(keepPoints ? sorted : null, newOutline, join(parts));
+        }
+
+        @Override
+        boolean moreThanThreePoints() {
+            return true;
+        }
+
+        @Override
+        void encode(final HullCodec.Writer out) {
+            out.writeHeader(HullCodec.BIG_CONVEX_HULL);
+            out.writeBoolean(this.points != null);
+            if (this.points != null) {
+                this.points.encode(out);
+            }
+            this.previousOutline.encode(out);
+            for (final Region region : Region.values()) {
+                this.convexHullParts.get(region).encode(out);
+            }
+        }
+
+        private static BigState decode(final HullCodec.Reader in) {
+            final SortedPointSet points = in.readBoolean() ? SortedPointSet.decode(in) : null;
+            checkArgument(points == null || points.size() > 3, "The encoded hull has less than 4 points");
+            final Outline outline = Outline.decode(in);
             final EnumMap<Region, ConvexHullPart> parts = new EnumMap<>(Region.class);
             for (final Region region : Region.values()) {
-                parts.put(region, newPart(newOutline, region));
+                parts.put(region, ConvexHullPart.decode(in));
             }
-            return new BigState(newOutline, parts);
+            return new BigState(points, outline, parts);
         }
 
         @Override
-        public List<Point> getPoints() {
+        List<Point> calculatePoints() {
             return this.convexHullParts.values().stream()
                     .flatMap(pp -> pp.getPoints().stream())
                     .distinct()
                     .collect(toList());
         }
 
-        private ConvexHullPart newPart(Outline newOutline, Region region) {
-            final List<Point> previousOutlinePoints = this.previousOutline.partForRegion(region);
-            final List<Point> newRegion = newOutline.partForRegion(region);
+        private CompletableFuture<ConvexHullPart> newPart(Outline newOutline, Region region, Executor executor) {
+            final PointBuffer previousOutlinePoints = this.previousOutline.partForRegion(region);
+            final PointBuffer newRegion = newOutline.partForRegion(region);
             return newRegion.equals(previousOutlinePoints) ?
-                    this.convexHullParts.get(region) :
-                    calculate(newRegion);
+                    completedFuture(this.convexHullParts.get(region)) :
+                    supplyAsync(() -> calculate(newRegion), executor);
+        }
+
+        /**
+         * Wait for the calculation of all hull parts to complete. Exceptions thrown during the calculation
+         * are rethrown unwrapped.
+         *
+         * @param futures of the hull parts
+         * @return calculated hull parts
+         */
+        private static EnumMap<Region, ConvexHullPart> join(EnumMap<Region, CompletableFuture<ConvexHullPart>> futures) {
+            final EnumMap<Region, ConvexHullPart> parts = new EnumMap<>(Region.class);
+            for (final Region region : Region.values()) {
+                try {
+                    parts.put(region, futures.get(region).join());
+                } catch (CompletionException e) {
+                    throw Throwables.propagate(e.getCause());
+                }
+            }
+            return parts;
         }
     }
 }
\ No newline at end of file
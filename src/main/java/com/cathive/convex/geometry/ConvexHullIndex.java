@@ -0,0 +1,323 @@
+package com.cathive.convex.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Index over the vertices of a {@link ConvexHull} that answers point-in-hull, extreme point and tangent queries
+ * in O(log h) time, where h is the number of vertices.
+ * <p>
+ * The vertices are split at the lexicographically smallest and greatest vertex into the upper and the lower chain,
+ * which are both stored as primitive arrays in ascending order. As the hull is convex, every query is answered by
+ * a binary search on the chains.
+ * <p>
+ * Instances are immutable and thus thread-safe.
+ *
+ * @author Alexander Erben
+ */
+public final class ConvexHullIndex {
+
+    /**
+     * Vertices of the hull in the order of {@link ConvexHull#getPoints()}
+     */
+    private final List<Point> vertices;
+
+    /**
+     * Coordinates of the vertices of the upper chain from the smallest to the greatest vertex
+     */
+    private final int[] upperX, upperY;
+
+    /**
+     * Coordinates of the vertices of the lower chain from the smallest to the greatest vertex
+     */
+    private final int[] lowerX, lowerY;
+
+    private ConvexHullIndex(final List<Point> vertices) {
+        this.vertices = Collections.unmodifiableList(new ArrayList<>(vertices));
+        final int h = vertices.size();
+        int greatest = 0;
+        for (int i = 1; i < h; i++) {
+            if (vertices.get(i).compareTo(vertices.get(greatest)) > 0) {
+                greatest = i;
+            }
+        }
+        final int upper = h == 0 ? 0 : greatest + 1;
+        final int lower = h == 0 ? 0 : h - greatest + 1;
+        this.upperX = new int[upper];
+        this.upperY = new int[upper];
+        this.lowerX = new int[lower];
+        this.lowerY = new int[lower];
+        for (int i = 0; i < upper; i++) {
+            this.upperX[i] = vertices.get(i).getX();
+            this.upperY[i] = vertices.get(i).getY();
+        }
+        for (int i = 0; i < lower; i++) {
+            final Point vertex = lowerVertex(i);
+            this.lowerX[i] = vertex.getX();
+            this.lowerY[i] = vertex.getY();
+        }
+    }
+
+    /**
+     * Build the index over the vertices of a hull
+     *
+     * @param hull to index
+     * @return new index
+     */
+    public static ConvexHullIndex of(final ConvexHull hull) {
+        final List<Point> points = hull.getPoints();
+        if (points.size() > 3) {
+            return new ConvexHullIndex(points);
+        }
+        // hulls of less than 4 points return the points themselves, which may be unordered or collinear
+        return new ConvexHullIndex(ConvexHull.degenerate(new ArrayList<>(new TreeSet<>(points))));
+    }
+
+    /**
+     * Return the indexed vertices. Collinear points of hulls with less than 4 points are no vertices.
+     *
+     * @return unmodifiable list of the vertices in the order of {@link ConvexHull#getPoints()}
+     */
+    public List<Point> getPoints() {
+        return this.vertices;
+    }
+
+    /**
+     * Check whether a point is inside of the hull or on its boundary
+     *
+     * @param x X value of the point
+     * @param y Y value of the point
+     * @return true if contained
+     */
+    public boolean contains(final int x, final int y) {
+        final int last = this.upperX.length - 1;
+        if (last < 0 || x < this.upperX[0] || x > this.upperX[last]) {
+            return false;
+        }
+        if (this.upperX[0] == this.upperX[last]) {
+            // a single point or a vertical line
+            return y >= this.upperY[0] && y <= this.upperY[last];
+        }
+        final int upper = upperSegment(x);
+        final int lower = lowerSegment(x);
+        return Determinant.of(this.upperX[upper], this.upperY[upper], this.upperX[upper + 1], this.upperY[upper + 1],
+                x, y) <= 0
+                && Determinant.of(this.lowerX[lower], this.lowerY[lower], this.lowerX[lower + 1],
+                this.lowerY[lower + 1], x, y) >= 0;
+    }
+
+    /**
+     * Check for many points whether they are contained in the hull. The points are distributed over the threads
+     * of a parallel stream.
+     *
+     * @param xs X values of the points
+     * @param ys Y values of the points
+     * @param n  number of points to read from the arrays
+     * @return new array that contains at index i whether the i-th point is contained, see {@link #contains(int, int)}
+     */
+    public boolean[] contains(final int[] xs, final int[] ys, final int n) {
+        final boolean[] contained = new boolean[n];
+        IntStream.range(0, n).parallel().forEach(i -> contained[i] = contains(xs[i], ys[i]));
+        return contained;
+    }
+
+    /**
+     * Find the vertex that is extreme in a direction, which is the vertex whose projection onto the direction
+     * is the greatest. If an edge of the hull is perpendicular to the direction, one of its vertices is returned.
+     *
+     * @param dx X value of the direction
+     * @param dy Y value of the direction
+     * @return extreme vertex
+     */
+    public Point extreme(final double dx, final double dy) {
+        checkArgument(dx != 0 || dy != 0, "The direction must not be zero");
+        checkState(!this.vertices.isEmpty(), "The hull is empty");
+        if (dy > 0) {
+            return this.vertices.get(extreme(this.upperX, this.upperY, dx, dy));
+        } else if (dy < 0) {
+            return lowerVertex(extreme(this.lowerX, this.lowerY, dx, dy));
+        }
+        return dx > 0 ? lowerVertex(this.lowerX.length - 1) : this.vertices.get(0);
+    }
+
+    /**
+     * Find the vertices where the tangents from a point outside of the hull touch the hull. The part of the
+     * boundary that is visible from the point runs clockwise from the first to the second returned vertex.
+     * If an edge of the hull lies on a tangent, its vertex closer to the point is returned.
+     *
+     * @param x X value of the point
+     * @param y Y value of the point
+     * @return the two touching vertices, which are equal if the hull is a single point or the point is on the line
+     * through a line-shaped hull, or an empty list if the point is inside of the hull or on its boundary
+     */
+    public List<Point> tangents(final int x, final int y) {
+        if (this.vertices.isEmpty() || contains(x, y)) {
+            return Collections.emptyList();
+        }
+        final List<Point> candidates = new ArrayList<>();
+        addTangentCandidates(this.upperX, this.upperY, x, y, candidates, false);
+        addTangentCandidates(this.lowerX, this.lowerY, x, y, candidates, true);
+        Point first = candidates.get(0);
+        Point second = candidates.get(0);
+        for (final Point candidate : candidates) {
+            final long toFirst = Determinant.of(x, y, first.getX(), first.getY(), candidate.getX(), candidate.getY());
+            if (toFirst < 0 || toFirst == 0 && closer(x, y, candidate, first)) {
+                first = candidate;
+            }
+            final long toSecond = Determinant.of(x, y, second.getX(), second.getY(), candidate.getX(),
+                    candidate.getY());
+            if (toSecond > 0 || toSecond == 0 && closer(x, y, candidate, second)) {
+                second = candidate;
+            }
+        }
+        return Arrays.asList(first, second);
+    }
+
+    /**
+     * Vertex of the lower chain
+     *
+     * @param i index in the lower chain
+     * @return vertex
+     */
+    private Point lowerVertex(final int i) {
+        return i == 0 ? this.vertices.get(0) : this.vertices.get(this.vertices.size() - i);
+    }
+
+    /**
+     * Find the segment of the upper chain above an X value. The upper chain may start with a vertical edge,
+     * which is skipped.
+     *
+     * @param x between the smallest and greatest X value of the hull, which differ
+     * @return index of the first vertex of the segment
+     */
+    private int upperSegment(final int x) {
+        final int greater = firstIndex(this.upperX, x, false);
+        return Math.min(greater, this.upperX.length - 1) - 1;
+    }
+
+    /**
+     * Find the segment of the lower chain below an X value. The lower chain may end with a vertical edge,
+     * which is skipped.
+     *
+     * @param x between the smallest and greatest X value of the hull, which differ
+     * @return index of the first vertex of the segment
+     */
+    private int lowerSegment(final int x) {
+        return Math.max(firstIndex(this.lowerX, x, true), 1) - 1;
+    }
+
+    /**
+     * Binary search for the first index whose value is greater than (or equal to) a value
+     *
+     * @param values    in ascending order
+     * @param value     to search
+     * @param inclusive whether equal values are found
+     * @return index, or the length of the array if there is none
+     */
+    private static int firstIndex(final int[] values, final int value, final boolean inclusive) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (values[mid] > value || inclusive && values[mid] == value) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Find the vertex of a chain whose projection onto a direction is the greatest. Along the chain,
+     * the projection first increases, then decreases.
+     *
+     * @return index of the vertex in the chain
+     */
+    private static int extreme(final int[] xs, final int[] ys, final double dx, final double dy) {
+        int lo = 0;
+        int hi = xs.length - 1;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (dx * ((long) xs[mid + 1] - xs[mid]) + dy * ((long) ys[mid + 1] - ys[mid]) > 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Collect the vertices of a chain that may be touched by a tangent from a point. The parts of the chain to the
+     * left and to the right of the point are convex and entirely on one side of the point, so the angle of the
+     * vertices as seen from the point first increases and then decreases along each part, or vice versa. The
+     * turning vertex and its successor are found by binary search for either case, and the ends of the parts are
+     * added, too.
+     * Vertices with the same X value as the point are added directly.
+     */
+    private void addTangentCandidates(final int[] xs, final int[] ys, final int x, final int y,
+                                      final List<Point> candidates, final boolean lower) {
+        final int left = firstIndex(xs, x, true);
+        final int right = firstIndex(xs, x, false);
+        for (final int[] part : new int[][]{{0, left}, {right, xs.length}}) {
+            final int from = part[0];
+            final int to = part[1];
+            if (from < to) {
+                addCandidate(candidates, from, lower);
+                addCandidate(candidates, to - 1, lower);
+                for (final boolean increasing : new boolean[]{true, false}) {
+                    // the vertex after the turning one is on the same ray if their edge points to the point
+                    final int turn = turn(xs, ys, from, to, x, y, increasing);
+                    addCandidate(candidates, turn, lower);
+                    addCandidate(candidates, Math.min(turn + 1, to - 1), lower);
+                }
+            }
+        }
+        for (int i = left; i < right; i++) {
+            addCandidate(candidates, i, lower);
+        }
+    }
+
+    private void addCandidate(final List<Point> candidates, final int i, final boolean lower) {
+        candidates.add(lower ? lowerVertex(i) : this.vertices.get(i));
+    }
+
+    /**
+     * Binary search for the first vertex of a part of a chain at which the angle seen from a point stops
+     * increasing (or decreasing)
+     *
+     * @return index of the vertex
+     */
+    private static int turn(final int[] xs, final int[] ys, final int from, final int to, final int x, final int y,
+                            final boolean increasing) {
+        int lo = from;
+        int hi = to - 1;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            final long determinant = Determinant.of(x, y, xs[mid], ys[mid], xs[mid + 1], ys[mid + 1]);
+            if (increasing ? determinant > 0 : determinant < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Check whether a point is closer to the origin point than another point on the same ray from the origin
+     */
+    private static boolean closer(final int x, final int y, final Point point, final Point other) {
+        final long distance = Math.abs((long) point.getX() - x) + Math.abs((long) point.getY() - y);
+        final long otherDistance = Math.abs((long) other.getX() - x) + Math.abs((long) other.getY() - y);
+        return distance < otherDistance;
+    }
+}
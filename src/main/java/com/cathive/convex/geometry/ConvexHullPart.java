@@ -1,13 +1,8 @@
 package com.cathive.convex.geometry;
 
-import com.google.common.base.Preconditions;
-
-import java.util.ArrayList;
 import java.util.List;
-import java.util.OptionalInt;
 
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.Stream.concat;
+import static com.google.common.base.Preconditions.checkArgument;
 
 /**
  * Each instance represents one of the four parts of which a convex hull is comprised if it contains more than 3
@@ -29,39 +24,57 @@ class ConvexHullPart {
      * @param points to setup from. Must be greater than 0.
      * @return corresponding hull part
      */
-    static ConvexHullPart calculate(final List<Point> points) {
-        List<Point> correct = correct(points);
-        return new ConvexHullPart(correct);
+    static ConvexHullPart calculate(final PointBuffer points) {
+        return new ConvexHullPart(chain(points).toPoints());
     }
 
-    private static List<Point> correct(final List<Point> points) {
-        List<Point> current = new ArrayList<>(points);
-        OptionalInt pjOpt;
-        while ((pjOpt = advance(current)).isPresent()) {
-            final int pj = pjOpt.orElseGet(() -> {throw new IllegalStateException("pj optional not set!");});
-            final int i = walkBack(current, pj);
-            current = concat(current.subList(0, i + 1).stream(), current.subList(pj + 1, current.size()).stream()).collect(toList());
-        }
-        return current;
+    /**
+     * Derive the hull path from an outline segment without creating {@link Point} objects
+     * @param points to setup from. Must be greater than 0. Not modified.
+     * @return new buffer containing the hull path
+     */
+    static PointBuffer chain(final PointBuffer points) {
+        return correct(points.copy());
     }
 
-    private static int walkBack(final List<Point> current, final int pj) {
-        final Point pjPlus1 = current.get(pj + 1);
-        for (int i = pj; i > 0; i--) {
-            if (Side.determine(current.get(i - 1), current.get(i), pjPlus1) == Side.RIGHT) {
-                return i;
+    /**
+     * Straighten out the path in a single pass. The buffer is used as a stack in place: the first
+     * <code>top</code> elements are the already corrected path, which makes right turns only. Before pushing
+     * the next point, all points are popped from the stack that would form a left turn or be collinear with it.
+     * As every point is pushed and popped at most once, the correction is linear in the length of the path.
+     * @param current path to correct. Modified in place.
+     * @return the passed buffer, truncated to the corrected path
+     */
+    private static PointBuffer correct(final PointBuffer current) {
+        int top = 0;
+        for (int i = 0; i < current.size(); i++) {
+            final long next = current.get(i);
+            while (top >= 2 && Side.determine(current.get(top - 2), current.get(top - 1), next) == Side.LEFT_OR_COLLINEAR) {
+                top--;
             }
+            current.set(top++, next);
         }
-        return 0;
+        current.truncate(top);
+        return current;
     }
 
-    private static OptionalInt advance(final List<Point> ps) {
-        for (int i = 0; i < ps.size() - 2; i++) {
-            if (Side.determine(ps.get(i), ps.get(i + 1), ps.get(i + 2)) == Side.LEFT_OR_COLLINEAR) {
-                return OptionalInt.of(i + 1);
-            }
-        }
-        return OptionalInt.empty();
+    /**
+     * Read a hull part written by {@link #encode(HullCodec.Writer)}
+     * @param in to read from
+     * @return hull part
+     */
+    static ConvexHullPart decode(final HullCodec.Reader in) {
+        final PointBuffer points = in.readPointBuffer();
+        checkArgument(points.size() > 0, "The encoded hull part is empty");
+        return new ConvexHullPart(points.toPoints());
+    }
+
+    /**
+     * Write the hull path, see {@link HullCodec}
+     * @param out to write to
+     */
+    void encode(final HullCodec.Writer out) {
+        out.writePoints(this.points);
     }
 
     public List<Point> getPoints() {
@@ -71,8 +84,8 @@ class ConvexHullPart {
     private enum Side {
         LEFT_OR_COLLINEAR, RIGHT;
 
-        private static Side determine(final Point A, final Point B, final Point C) {
-            final long result = Determinant.of(A, B, C);
+        private static Side determine(final long A, final long B, final long C) {
+            final long result = Determinant.ofPacked(A, B, C);
             return result >= 0 ? LEFT_OR_COLLINEAR : RIGHT;
         }
     }
@@ -0,0 +1,288 @@
+package com.cathive.convex.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Immutable snapshot of the vertices of a {@link ConvexHull} together with metrics of the hull that are calculated
+ * once when the snapshot is created: the area, the perimeter, the centroid and the bounding box.
+ * See {@link ConvexHull#snapshot()}.
+ * <p>
+ * The metrics are calculated from the hull polygon. For hulls of less than 4 points, whose
+ * {@link ConvexHull#getPoints()} returns the points themselves, collinear points are skipped, see
+ * {@link ConvexHull#degenerate(List)}. A hull of two vertices is a line whose perimeter is twice its length.
+ * <p>
+ * The diameter, the minimum width and the minimum-area rectangle are not stored but calculated on demand.
+ *
+ * @author Alexander Erben
+ */
+public final class ConvexHullSnapshot {
+
+    private final List<Point> points;
+
+    /**
+     * Coordinates of the vertices of the hull polygon in the order of {@link ConvexHull#getPoints()}
+     */
+    private final int[] xs, ys;
+
+    /**
+     * Twice the area, which is an integer as all coordinates are integers
+     */
+    private final long twiceArea;
+
+    /**
+     * Whether twice the area exceeds the range of <code>long</code>
+     */
+    private final boolean twiceAreaOverflows;
+
+    private final double area;
+
+    private final double perimeter;
+
+    private final double centroidX, centroidY;
+
+    /**
+     * Bounding box of the hull
+     */
+    private final int minX, minY, maxX, maxY;
+
+    ConvexHullSnapshot(final List<Point> points) {
+        this.points = Collections.unmodifiableList(new ArrayList<>(points));
+        final List<Point> vertices = points.size() > 3 ? points
+                : ConvexHull.degenerate(new ArrayList<>(new TreeSet<>(points)));
+        final int h = vertices.size();
+        this.xs = new int[h];
+        this.ys = new int[h];
+        for (int i = 0; i < h; i++) {
+            this.xs[i] = vertices.get(i).getX();
+            this.ys[i] = vertices.get(i).getY();
+        }
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < h; i++) {
+            maxX = Math.max(maxX, this.xs[i]);
+            minY = Math.min(minY, this.ys[i]);
+            maxY = Math.max(maxY, this.ys[i]);
+        }
+        // the first vertex is the lexicographically smallest one
+        this.minX = h == 0 ? Integer.MAX_VALUE : this.xs[0];
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        long twiceArea = 0;
+        boolean overflows = false;
+        double area = 0;
+        double perimeter = 0;
+        double sumX = 0;
+        double sumY = 0;
+        for (int i = 0; i < h; i++) {
+            final int next = i + 1 == h ? 0 : i + 1;
+            // relative to the first vertex, so the terms of the vertices of the first and last edge vanish
+            final long x = (long) this.xs[i] - this.xs[0];
+            final long y = (long) this.ys[i] - this.ys[0];
+            final long nextX = (long) this.xs[next] - this.xs[0];
+            final long nextY = (long) this.ys[next] - this.ys[0];
+            // the vertices are in clockwise order, so the cross products are not positive
+            final double cross = (double) x * nextY - (double) nextX * y;
+            if (!overflows) {
+                try {
+                    twiceArea = Math.addExact(twiceArea,
+                            Math.subtractExact(Math.multiplyExact(x, nextY), Math.multiplyExact(nextX, y)));
+                } catch (final ArithmeticException e) {
+                    overflows = true;
+                }
+            }
+            area += cross;
+            sumX += (x + nextX) * cross;
+            sumY += (y + nextY) * cross;
+            perimeter += Math.sqrt((double) (nextX - x) * (nextX - x) + (double) (nextY - y) * (nextY - y));
+        }
+        this.twiceArea = -twiceArea;
+        this.twiceAreaOverflows = overflows;
+        this.area = -area / 2;
+        this.perimeter = perimeter;
+        if (h == 0) {
+            this.centroidX = Double.NaN;
+            this.centroidY = Double.NaN;
+        } else if (area == 0) {
+            // a single point or a line, whose centroid is its middle
+            this.centroidX = this.xs[0] + ((double) this.xs[h - 1] - this.xs[0]) / 2;
+            this.centroidY = this.ys[0] + ((double) this.ys[h - 1] - this.ys[0]) / 2;
+        } else {
+            this.centroidX = this.xs[0] + sumX / (3 * area);
+            this.centroidY = this.ys[0] + sumY / (3 * area);
+        }
+    }
+
+    /**
+     * Return the vertices of the hull, see {@link ConvexHull#getPoints()}
+     *
+     * @return unmodifiable list of the vertices
+     */
+    public List<Point> getPoints() {
+        return this.points;
+    }
+
+    /**
+     * Return twice the area of the hull, which is exact as all coordinates are integers
+     *
+     * @return twice the area
+     * @throws ArithmeticException if twice the area exceeds the range of <code>long</code>, which is only possible
+     *                             if the hull is wider and higher than {@link Integer#MAX_VALUE}
+     */
+    public long getTwiceArea() {
+        if (this.twiceAreaOverflows) {
+            throw new ArithmeticException("Twice the area of the hull exceeds the range of long");
+        }
+        return this.twiceArea;
+    }
+
+    /**
+     * Return the area of the hull
+     *
+     * @return area, 0 if the hull has less than 3 vertices
+     */
+    public double getArea() {
+        return this.area;
+    }
+
+    /**
+     * Return the length of the boundary of the hull
+     *
+     * @return perimeter
+     */
+    public double getPerimeter() {
+        return this.perimeter;
+    }
+
+    /**
+     * Return the X value of the center of mass of the hull polygon
+     *
+     * @return X value of the centroid
+     * @throws IllegalStateException if the hull is empty
+     */
+    public double getCentroidX() {
+        checkNotEmpty();
+        return this.centroidX;
+    }
+
+    /**
+     * Return the Y value of the center of mass of the hull polygon
+     *
+     * @return Y value of the centroid
+     * @throws IllegalStateException if the hull is empty
+     */
+    public double getCentroidY() {
+        checkNotEmpty();
+        return this.centroidY;
+    }
+
+    /**
+     * Return the smallest X value of the vertices, which bounds the hull
+     *
+     * @return smallest X value of the bounding box
+     * @throws IllegalStateException if the hull is empty
+     */
+    public int getMinX() {
+        checkNotEmpty();
+        return this.minX;
+    }
+
+    /**
+     * Return the smallest Y value of the vertices, which bounds the hull
+     *
+     * @return smallest Y value of the bounding box
+     * @throws IllegalStateException if the hull is empty
+     */
+    public int getMinY() {
+        checkNotEmpty();
+        return this.minY;
+    }
+
+    /**
+     * Return the greatest X value of the vertices, which bounds the hull
+     *
+     * @return greatest X value of the bounding box
+     * @throws IllegalStateException if the hull is empty
+     */
+    public int getMaxX() {
+        checkNotEmpty();
+        return this.maxX;
+    }
+
+    /**
+     * Return the greatest Y value of the vertices, which bounds the hull
+     *
+     * @return greatest Y value of the bounding box
+     * @throws IllegalStateException if the hull is empty
+     */
+    public int getMaxY() {
+        checkNotEmpty();
+        return this.maxY;
+    }
+
+    /**
+     * Return the two vertices of the hull that are farthest apart. Calculated with the rotating calipers in O(h) time
+     * on every call, see {@link RotatingCalipers}.
+     *
+     * @return the two vertices, which are equal if the hull is a single point
+     */
+    public List<Point> getDiameterPoints() {
+        checkNotEmpty();
+        final int h = this.xs.length;
+        final int[] diameter = h > 2 ? new RotatingCalipers(this.xs, this.ys).diameter() : new int[]{0, h - 1};
+        return Arrays.asList(Point.of(this.xs[diameter[0]], this.ys[diameter[0]]),
+                Point.of(this.xs[diameter[1]], this.ys[diameter[1]]));
+    }
+
+    /**
+     * Return the greatest distance of two vertices of the hull, see {@link #getDiameterPoints()}
+     *
+     * @return diameter
+     */
+    public double getDiameter() {
+        final List<Point> diameter = getDiameterPoints();
+        return Math.hypot((double) diameter.get(1).getX() - diameter.get(0).getX(),
+                (double) diameter.get(1).getY() - diameter.get(0).getY());
+    }
+
+    /**
+     * Return the smallest distance of two parallel lines that enclose the hull. Calculated with the rotating
+     * calipers in O(h) time on every call, see {@link RotatingCalipers}.
+     *
+     * @return minimum width, 0 if the hull has less than 3 vertices
+     */
+    public double getMinimumWidth() {
+        checkNotEmpty();
+        return this.xs.length > 2 ? new RotatingCalipers(this.xs, this.ys).minimumWidth() : 0;
+    }
+
+    /**
+     * Return the rectangle of the smallest area that encloses the hull. One of its sides contains an edge of the hull.
+     * Calculated with the rotating calipers in O(h) time on every call, see {@link RotatingCalipers}.
+     *
+     * @return minimum-area rectangle, which has a height of 0 if the hull has less than 3 vertices
+     */
+    public OrientedRectangle getMinimumAreaRectangle() {
+        checkNotEmpty();
+        final int h = this.xs.length;
+        if (h > 2) {
+            return new RotatingCalipers(this.xs, this.ys).minimumAreaRectangle();
+        }
+        final double dx = (double) this.xs[h - 1] - this.xs[0];
+        final double dy = (double) this.ys[h - 1] - this.ys[0];
+        final double length = Math.hypot(dx, dy);
+        return length == 0 ? new OrientedRectangle(this.xs[0], this.ys[0], 1, 0, 0, 0, 0)
+                : new OrientedRectangle(this.xs[0], this.ys[0], dx / length, dy / length, 0, length, 0);
+    }
+
+    private void checkNotEmpty() {
+        checkState(this.xs.length > 0, "The hull is empty");
+    }
+}
@@ -14,12 +14,40 @@ final class Determinant {
      * @return determinant
      */
     static long of(final Point A, final Point B, final Point C) {
-        final long Ax = A.getX();
-        final long Ay = A.getY();
-        final long Bx = B.getX();
-        final long By = B.getY();
-        final long Cx = C.getX();
-        final long Cy = C.getY();
-        return (Cx - Ax) * (Cy + Ay) + (Bx - Cx) * (By + Cy) + (Ax - Bx) * (Ay + By);
+        return of(A.getX(), A.getY(), B.getX(), B.getY(), C.getX(), C.getY());
+    }
+
+    /**
+     * Calculate the determinant of three points given by their coordinates
+     * @param Ax X value of point A
+     * @param Ay Y value of point A
+     * @param Bx X value of point B
+     * @param By Y value of point B
+     * @param Cx X value of point C
+     * @param Cy Y value of point C
+     * @return determinant, or only its sign if the differences of the coordinates are too large for the
+     * determinant to be calculated without overflow, see {@link Orientation}
+     */
+    static long of(final long Ax, final long Ay, final long Bx, final long By, final long Cx, final long Cy) {
+        final long ABx = Bx - Ax;
+        final long ABy = By - Ay;
+        final long ACx = Cx - Ax;
+        final long ACy = Cy - Ay;
+        if (((ABx + Integer.MAX_VALUE) | (ABy + Integer.MAX_VALUE) | (ACx + Integer.MAX_VALUE)
+                | (ACy + Integer.MAX_VALUE)) >>> 32 == 0) {
+            return ABx * ACy - ABy * ACx;
+        }
+        return Orientation.of(Ax, Ay, Bx, By, Cx, Cy);
+    }
+
+    /**
+     * Calculate the determinant of three packed points, see {@link PointBuffer#pack(int, int)}
+     * @param A packed point A
+     * @param B packed point B
+     * @param C packed point C
+     * @return determinant
+     */
+    static long ofPacked(final long A, final long B, final long C) {
+        return of(PointBuffer.x(A), PointBuffer.y(A), PointBuffer.x(B), PointBuffer.y(B), PointBuffer.x(C), PointBuffer.y(C));
     }
 }
@@ -0,0 +1,253 @@
+package com.cathive.convex.geometry;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A mutable convex hull that allows points to be inserted and removed one at a time in O(log^2 n) expected time,
+ * as opposed to {@link ConvexHull#update(List)}, which processes the complete point set.
+ * <p>
+ * The points are kept in a balanced binary search tree (a treap) as described by Overmars and van Leeuwen. Every
+ * node stores the upper and lower {@link HullChain} of the points in its subtree, which are merged from the chains
+ * of its children. When a point is inserted or removed, only the chains of the nodes on the path to its node
+ * have to be merged again, and only if the point is not strictly inside of the hull of the node.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Alexander Erben
+ */
+public final class DynamicConvexHull {
+
+    /**
+     * Root of the tree, <code>null</code> if the hull is empty
+     */
+    private Node root;
+
+    /**
+     * Number of points in the hull
+     */
+    private int size;
+
+    /**
+     * Insert a point. Nothing happens if the point is already contained.
+     *
+     * @param point to insert
+     * @return true if the point was not contained before
+     */
+    public boolean insert(final Point point) {
+        checkNotNull(point, "point");
+        final long packed = PointBuffer.pack(point);
+        if (find(packed) != null) {
+            return false;
+        }
+        this.root = insert(this.root, packed);
+        this.size++;
+        return true;
+    }
+
+    /**
+     * Remove a point. Nothing happens if the point is not contained.
+     *
+     * @param point to remove
+     * @return true if the point was contained before
+     */
+    public boolean remove(final Point point) {
+        checkNotNull(point, "point");
+        final long packed = PointBuffer.pack(point);
+        if (find(packed) == null) {
+            return false;
+        }
+        this.root = remove(this.root, packed);
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Check if a point is contained
+     *
+     * @param point to check
+     * @return true if the point was inserted and not removed since
+     */
+    public boolean contains(final Point point) {
+        return find(PointBuffer.pack(point)) != null;
+    }
+
+    /**
+     * Number of points, including the ones inside of the hull
+     *
+     * @return size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Check if there are no points
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Calculate the vertices of the hull. Points on the edges of the hull are no vertices.
+     * The vertices are the same and in the same order as in {@link ConvexHull#getPoints()} of the contained
+     * points, starting with the leftmost point. So less than 4 points are all returned in ascending order.
+     *
+     * @return new list of the vertices, empty if there are no points
+     */
+    public List<Point> getPoints() {
+        final PointBuffer vertices = new PointBuffer();
+        if (this.size < 4) {
+            appendTo(this.root, vertices);
+        } else {
+            HullChain.appendTo(this.root.upper, vertices);
+            final PointBuffer lower = new PointBuffer();
+            HullChain.appendTo(this.root.lower, lower);
+            for (int i = 1; i < lower.size() - 1; i++) {
+                vertices.add(lower.get(i));
+            }
+        }
+        return vertices.toPoints();
+    }
+
+    /**
+     * Append the points of a subtree in ascending order
+     */
+    private static void appendTo(final Node node, final PointBuffer points) {
+        if (node != null) {
+            appendTo(node.left, points);
+            points.add(node.point);
+            appendTo(node.right, points);
+        }
+    }
+
+    private Node find(final long point) {
+        Node node = this.root;
+        while (node != null && node.point != point) {
+            node = point < node.point ? node.left : node.right;
+        }
+        return node;
+    }
+
+    private static Node insert(final Node node, final long point) {
+        if (node == null) {
+            return new Node(point).update();
+        }
+        final boolean interior = node.surrounds(point);
+        if (point < node.point) {
+            node.left = insert(node.left, point);
+            if (node.left.priority > node.priority) {
+                return rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, point);
+            if (node.right.priority > node.priority) {
+                return rotateLeft(node);
+            }
+        }
+        return interior ? node : node.update();
+    }
+
+    private static Node remove(final Node node, final long point) {
+        if (point == node.point) {
+            return join(node.left, node.right);
+        }
+        final boolean interior = node.surrounds(point);
+        if (point < node.point) {
+            node.left = remove(node.left, point);
+        } else {
+            node.right = remove(node.right, point);
+        }
+        return interior ? node : node.update();
+    }
+
+    /**
+     * Join two trees. All points of the first tree must be smaller than those of the second one.
+     */
+    private static Node join(final Node left, final Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority >= right.priority) {
+            left.right = join(left.right, right);
+            return left.update();
+        }
+        right.left = join(left, right.left);
+        return right.update();
+    }
+
+    private static Node rotateRight(final Node node) {
+        final Node left = node.left;
+        node.left = left.right;
+        left.right = node.update();
+        return left.update();
+    }
+
+    private static Node rotateLeft(final Node node) {
+        final Node right = node.right;
+        node.right = right.left;
+        right.left = node.update();
+        return right.update();
+    }
+
+    /**
+     * Node of the tree. Holds a point and the hull chains of its subtree.
+     */
+    private static final class Node {
+
+        private final long point;
+
+        private final int priority;
+
+        private Node left, right;
+
+        /**
+         * Upper chain from left to right and lower chain from right to left of the points in the subtree
+         */
+        private HullChain upper, lower;
+
+        private Node(final long point) {
+            this.point = point;
+            this.priority = HullChain.priority(point);
+        }
+
+        /**
+         * Merge the hull chains of the subtree from the chains of the children
+         *
+         * @return this node
+         */
+        private Node update() {
+            final HullChain self = HullChain.of(this.point);
+            this.upper = HullChain.merge(HullChain.merge(chain(this.left, HullChain.Half.UPPER), self,
+                    HullChain.Half.UPPER), chain(this.right, HullChain.Half.UPPER), HullChain.Half.UPPER);
+            this.lower = HullChain.merge(HullChain.merge(chain(this.right, HullChain.Half.LOWER), self,
+                    HullChain.Half.LOWER), chain(this.left, HullChain.Half.LOWER), HullChain.Half.LOWER);
+            return this;
+        }
+
+        /**
+         * Check if a point lies strictly inside of the hull of the subtree. Inserting or removing such a point
+         * does not change the chains of the subtree.
+         *
+         * @param point packed point
+         * @return true if the point is inside of the hull and not on its boundary
+         */
+        private boolean surrounds(final long point) {
+            return HullChain.surrounds(this.upper, point, HullChain.Half.UPPER)
+                    && HullChain.surrounds(this.lower, point, HullChain.Half.LOWER);
+        }
+
+        private static HullChain chain(final Node node, final HullChain.Half half) {
+            if (node == null) {
+                return null;
+            }
+            return half == HullChain.Half.UPPER ? node.upper : node.lower;
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.cathive.convex.geometry;
+
+import java.math.BigInteger;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * An immutable chain of hull vertices that only makes right turns, stored as a balanced binary search tree
+ * (a treap) of packed points, see {@link PointBuffer#pack(int, int)}. <code>null</code> is the empty chain.
+ * <p>
+ * Two chains are merged in O(log n) time by finding the bridge between them as described by Overmars and
+ * van Leeuwen, then joining the part of the first chain up to the bridge with the part of the second chain
+ * from the bridge on. As the chains are immutable, the merged chain shares most of its nodes with the original
+ * chains, which stay valid. This allows {@link DynamicConvexHull} to keep the chains of all its subtrees.
+ * <p>
+ * The order of the points in a chain is given by its {@link Half}. The lower hull in descending order is the
+ * upper hull of the point set rotated by 180 degrees, and the rotation does not change determinants, so the
+ * algorithms are the same for both halves.
+ *
+ * @author Alexander Erben
+ */
+final class HullChain {
+
+    /**
+     * Point stored in this node
+     */
+    private final long point;
+
+    /**
+     * Priority of the node, see {@link #priority(long)}. No node of a subtree has a greater priority than its root.
+     */
+    private final int priority;
+
+    /**
+     * Subtree of the points before and after the point of this node
+     */
+    private final HullChain left, right;
+
+    /**
+     * First and last point of the subtree
+     */
+    private final long first, last;
+
+    /**
+     * Number of points in the subtree
+     */
+    private final int size;
+
+    private HullChain(final long point, final int priority, final HullChain left, final HullChain right) {
+        this.point = point;
+        this.priority = priority;
+        this.left = left;
+        this.right = right;
+        this.first = left == null ? point : left.first;
+        this.last = right == null ? point : right.last;
+        this.size = 1 + size(left) + size(right);
+    }
+
+    /**
+     * Create a chain consisting of a single point
+     *
+     * @param point packed point
+     * @return new chain
+     */
+    static HullChain of(final long point) {
+        return new HullChain(point, priority(point), null, null);
+    }
+
+    /**
+     * Calculate the priority of a point in a treap. The priority is derived from the point itself by a mixing
+     * function, so that the shape of a tree only depends on its points.
+     *
+     * @param point packed point
+     * @return pseudo random priority
+     */
+    static int priority(final long point) {
+        long z = point + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (int) (z ^ (z >>> 31));
+    }
+
+    /**
+     * Number of points in a chain
+     *
+     * @param chain chain, possibly empty
+     * @return size
+     */
+    static int size(final HullChain chain) {
+        return chain == null ? 0 : chain.size;
+    }
+
+    /**
+     * Append all points of a chain in chain order to a buffer
+     *
+     * @param chain  chain, possibly empty
+     * @param target to add the points to
+     */
+    static void appendTo(final HullChain chain, final PointBuffer target) {
+        if (chain != null) {
+            appendTo(chain.left, target);
+            target.add(chain.point);
+            appendTo(chain.right, target);
+        }
+    }
+
+    /**
+     * Check if a point lies strictly on the inner side of a chain, which is below the upper chain and above the
+     * lower chain, and strictly between its first and last point.
+     *
+     * @param chain chain, possibly empty
+     * @param point packed point
+     * @param half  of the hull the chain belongs to
+     * @return true if the point is on the inner side and not on the chain
+     */
+    static boolean surrounds(final HullChain chain, final long point, final Half half) {
+        boolean hasPrevious = false, hasNext = false;
+        long previous = 0, next = 0;
+        HullChain node = chain;
+        while (node != null) {
+            final int comparison = half.compare(point, node.point);
+            if (comparison == 0) {
+                return false;
+            }
+            if (comparison < 0) {
+                hasNext = true;
+                next = node.point;
+                node = node.left;
+            } else {
+                hasPrevious = true;
+                previous = node.point;
+                node = node.right;
+            }
+        }
+        return hasPrevious && hasNext && Determinant.ofPacked(previous, next, point) < 0;
+    }
+
+    /**
+     * Merge two chains of the same half. All points of the first chain must come before all points of the
+     * second chain with regard to the order of the half.
+     *
+     * @param before chain of the points before, possibly empty
+     * @param after  chain of the points after, possibly empty
+     * @param half   of the hull the chains belong to
+     * @return chain of the union of both point sets
+     */
+    static HullChain merge(final HullChain before, final HullChain after, final Half half) {
+        if (before == null) {
+            return after;
+        }
+        if (after == null) {
+            return before;
+        }
+        final long[] bridge = bridge(before, after, half);
+        return concat(head(before, bridge[0], half), tail(after, bridge[1], half));
+    }
+
+    /**
+     * Find the bridge between two chains, which is the edge of the merged chain that connects them.
+     * <p>
+     * Starting at the roots, a point p of the first chain and a point q of the second chain are examined. If a
+     * neighbour of p lies above the line from p to q, the bridge point of the first chain lies on the side of that
+     * neighbour, or p is on the hull of the union and the bridge lies behind p. The second chain is treated alike.
+     * In each step, at least one of the points descends into a subtree. If the neighbours point to the different
+     * subtrees in a way that both cases are possible, the intersection of the lines through the neighbouring
+     * edges decides: one of the lines lies above all points, depending on the side of the intersection relative
+     * to the boundary of the chains.
+     *
+     * @param before first chain
+     * @param after  second chain
+     * @param half   of the hull the chains belong to
+     * @return bridge point of the first chain, followed by the one of the second chain
+     */
+    private static long[] bridge(final HullChain before, final HullChain after, final Half half) {
+        final long boundary = after.first;
+        HullChain a = before;
+        HullChain b = after;
+        // neighbours of the subtrees that are examined, inherited from their ancestors
+        boolean hasPrevA = false, hasNextA = false, hasPrevB = false, hasNextB = false;
+        long prevA = 0, nextA = 0, prevB = 0, nextB = 0;
+        while (true) {
+            checkState(a != null && b != null, "No bridge between chains");
+            final long p = a.point;
+            final long q = b.point;
+            final boolean hasPrevP = a.left != null || hasPrevA;
+            final long prevP = a.left != null ? a.left.last : prevA;
+            final boolean hasNextP = a.right != null || hasNextA;
+            final long nextP = a.right != null ? a.right.first : nextA;
+            final boolean hasPrevQ = b.left != null || hasPrevB;
+            final long prevQ = b.left != null ? b.left.last : prevB;
+            final boolean hasNextQ = b.right != null || hasNextB;
+            final long nextQ = b.right != null ? b.right.first : nextB;
+
+            final int sideP = hasPrevP && Determinant.ofPacked(p, q, prevP) > 0 ? -1
+                    : hasNextP && Determinant.ofPacked(p, q, nextP) > 0 ? 1 : 0;
+            final int sideQ = hasNextQ && Determinant.ofPacked(p, q, nextQ) > 0 ? 1
+                    : hasPrevQ && Determinant.ofPacked(p, q, prevQ) > 0 ? -1 : 0;
+            if (sideP == 0 && sideQ == 0) {
+                // prefer the outer points if a neighbour is collinear, so that the merged chain only turns right
+                final long from = hasPrevP && Determinant.ofPacked(p, q, prevP) == 0 ? prevP : p;
+                final long to = hasNextQ && Determinant.ofPacked(from, q, nextQ) == 0 ? nextQ : q;
+                return new long[]{from, to};
+            }
+            boolean descendA = sideP < 0;
+            boolean descendB = sideQ > 0;
+            if (!descendA && !descendB) {
+                if (sideP == 0) {
+                    descendB = true;
+                } else if (sideQ == 0) {
+                    descendA = true;
+                } else if (half.compareIntersection(p, nextP, prevQ, q, boundary) < 0) {
+                    descendA = true;
+                } else {
+                    descendB = true;
+                }
+            }
+            if (descendA) {
+                if (sideP < 0) {
+                    hasNextA = true;
+                    nextA = p;
+                    a = a.left;
+                } else {
+                    hasPrevA = true;
+                    prevA = p;
+                    a = a.right;
+                }
+            }
+            if (descendB) {
+                if (sideQ > 0) {
+                    hasPrevB = true;
+                    prevB = q;
+                    b = b.right;
+                } else {
+                    hasNextB = true;
+                    nextB = q;
+                    b = b.left;
+                }
+            }
+        }
+    }
+
+    /**
+     * Extract the points of a chain up to a point
+     *
+     * @param chain chain, possibly empty
+     * @param to    last point to keep, inclusive
+     * @param half  of the hull the chain belongs to
+     * @return chain of all points that are not after the given point
+     */
+    private static HullChain head(final HullChain chain, final long to, final Half half) {
+        if (chain == null) {
+            return null;
+        }
+        if (half.compare(chain.point, to) > 0) {
+            return head(chain.left, to, half);
+        }
+        final HullChain right = head(chain.right, to, half);
+        return right == chain.right ? chain : new HullChain(chain.point, chain.priority, chain.left, right);
+    }
+
+    /**
+     * Extract the points of a chain from a point on
+     *
+     * @param chain chain, possibly empty
+     * @param from  first point to keep, inclusive
+     * @param half  of the hull the chain belongs to
+     * @return chain of all points that are not before the given point
+     */
+    private static HullChain tail(final HullChain chain, final long from, final Half half) {
+        if (chain == null) {
+            return null;
+        }
+        if (half.compare(chain.point, from) < 0) {
+            return tail(chain.right, from, half);
+        }
+        final HullChain left = tail(chain.left, from, half);
+        return left == chain.left ? chain : new HullChain(chain.point, chain.priority, left, chain.right);
+    }
+
+    /**
+     * Concatenate two chains. All points of the first chain must come before the points of the second one.
+     *
+     * @param before first chain, possibly empty
+     * @param after  second chain, possibly empty
+     * @return concatenated chain
+     */
+    private static HullChain concat(final HullChain before, final HullChain after) {
+        if (before == null) {
+            return after;
+        }
+        if (after == null) {
+            return before;
+        }
+        if (before.priority >= after.priority) {
+            return new HullChain(before.point, before.priority, before.left, concat(before.right, after));
+        }
+        return new HullChain(after.point, after.priority, concat(before, after.left), after.right);
+    }
+
+    /**
+     * The half of a hull a chain belongs to, which determines the order of its points
+     */
+    enum Half {
+        /**
+         * The upper chain from left to right
+         */
+        UPPER(1),
+        /**
+         * The lower chain from right to left
+         */
+        LOWER(-1);
+
+        /**
+         * 1 if the points are in ascending order, -1 otherwise
+         */
+        private final int direction;
+
+        Half(final int direction) {
+            this.direction = direction;
+        }
+
+        /**
+         * Compare two packed points with regard to the order of this half
+         *
+         * @param a first point
+         * @param b second point
+         * @return negative value if a comes before b, positive value if it comes after b, 0 if they are equal
+         */
+        int compare(final long a, final long b) {
+            return this.direction * Long.compare(a, b);
+        }
+
+        /**
+         * Compare the intersection of the lines through A1 and A2 and through B1 and B2 with a point with regard
+         * to the order of this half. The lines must not be parallel. The comparison is exact.
+         *
+         * @param a1 first point of line A
+         * @param a2 second point of line A
+         * @param b1 first point of line B
+         * @param b2 second point of line B
+         * @param c  point to compare with
+         * @return negative value if the intersection comes before c, positive value if it comes after c,
+         * 0 if they are equal
+         */
+        int compareIntersection(final long a1, final long a2, final long b1, final long b2, final long c) {
+            final long ax = PointBuffer.x(a1), ay = PointBuffer.y(a1);
+            final long dax = PointBuffer.x(a2) - ax, day = PointBuffer.y(a2) - ay;
+            final long dbx = (long) PointBuffer.x(b2) - PointBuffer.x(b1);
+            final long dby = (long) PointBuffer.y(b2) - PointBuffer.y(b1);
+            final long ex = PointBuffer.x(b1) - ax, ey = PointBuffer.y(b1) - ay;
+            if (((dax + Integer.MAX_VALUE) | (day + Integer.MAX_VALUE) | (dbx + Integer.MAX_VALUE)
+                    | (dby + Integer.MAX_VALUE) | (ex + Integer.MAX_VALUE) | (ey + Integer.MAX_VALUE)) >>> 32 != 0) {
+                return this.direction * compareIntersection(ax, ay, dax, day, dbx, dby, ex, ey, c);
+            }
+            // the intersection is A1 + t * (A2 - A1) with t = numerator / denominator. The differences
+            // fit in 32 bits, so the products and their differences fit in a long.
+            final long denominator = dax * dby - day * dbx;
+            final long numerator = ex * dby - ey * dbx;
+            int result = signOfSum(ax - PointBuffer.x(c), denominator, numerator, dax);
+            if (result == 0) {
+                result = signOfSum(ay - PointBuffer.y(c), denominator, numerator, day);
+            }
+            return this.direction * result * Long.signum(denominator);
+        }
+
+        /**
+         * Compare the intersection with a point in ascending order with {@link BigInteger}s, for differences of
+         * the coordinates that are too large for the products to fit in a long
+         */
+        private static int compareIntersection(final long ax, final long ay, final long dax, final long day,
+                                               final long dbx, final long dby, final long ex, final long ey,
+                                               final long c) {
+            final BigInteger denominator = BigInteger.valueOf(dax).multiply(BigInteger.valueOf(dby))
+                    .subtract(BigInteger.valueOf(day).multiply(BigInteger.valueOf(dbx)));
+            final BigInteger numerator = BigInteger.valueOf(ex).multiply(BigInteger.valueOf(dby))
+                    .subtract(BigInteger.valueOf(ey).multiply(BigInteger.valueOf(dbx)));
+            int result = BigInteger.valueOf(ax - PointBuffer.x(c)).multiply(denominator)
+                    .add(numerator.multiply(BigInteger.valueOf(dax))).signum();
+            if (result == 0) {
+                result = BigInteger.valueOf(ay - PointBuffer.y(c)).multiply(denominator)
+                        .add(numerator.multiply(BigInteger.valueOf(day))).signum();
+            }
+            return result * denominator.signum();
+        }
+
+        /**
+         * Calculate the sign of a * b + c * d exactly. The products may exceed the range of <code>long</code>,
+         * so they are calculated with floating point numbers first and only if the result is too close to 0 to
+         * be certain, with {@link BigInteger}.
+         */
+        private static int signOfSum(final long a, final long b, final long c, final long d) {
+            final double estimate = (double) a * b + (double) c * d;
+            final double error = (Math.abs((double) a * b) + Math.abs((double) c * d)) * 1e-14;
+            if (Math.abs(estimate) > error) {
+                return estimate > 0 ? 1 : -1;
+            }
+            return BigInteger.valueOf(a).multiply(BigInteger.valueOf(b))
+                    .add(BigInteger.valueOf(c).multiply(BigInteger.valueOf(d))).signum();
+        }
+    }
+}
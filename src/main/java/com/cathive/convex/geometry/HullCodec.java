@@ -0,0 +1,368 @@
+package com.cathive.convex.geometry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Compact, versioned binary encoding of {@link ConvexHull}s and {@link AngleHull}s, so that hulls can be cached
+ * on disk or sent to another JVM without calculating them again.
+ * <p>
+ * A convex hull is encoded with its complete state: the sorted and the culled points if the hull keeps them, see
+ * {@link ConvexHull#setupForDeltaUpdates(List)}, the parts of the {@link Outline} and the parts of the hull of every
+ * {@link Region}. So {@link ConvexHull#update(java.util.Collection, java.util.Collection)} on a decoded hull reuses
+ * the parts that are not affected, just like on the original hull.
+ * An angle hull is encoded with its angle, the vertices of its convex hull and its arcs, so that
+ * {@link AngleHull#update(ConvexHull)} on a decoded angle hull reuses its arcs as well.
+ * <p>
+ * Every encoding starts with a magic number, the format version and the kind of hull. Sequences of points are
+ * encoded as the differences of the coordinates of consecutive points, which are small for sorted points and
+ * the paths of the hull. All integers are written as variable length quantities of 7 bits per byte, signed ones
+ * zig-zag encoded. Centers of arcs, angles and radii are written as IEEE 754 doubles. Decoding reads the points
+ * into primitive arrays directly from the buffer, which may be a file mapped by {@link #readConvexHull(Path)}.
+ *
+ * @author Alexander Erben
+ */
+public final class HullCodec {
+
+    /**
+     * "CVXH" in ASCII
+     */
+    private static final int MAGIC = 0x43565848;
+
+    /**
+     * Version of the format, increased on every incompatible change
+     */
+    private static final int VERSION = 4;
+
+    /**
+     * Kinds of encoded hulls
+     */
+    static final int SMALL_CONVEX_HULL = 0, BIG_CONVEX_HULL = 1, ANGLE_HULL = 2;
+
+    private HullCodec() {
+    }
+
+    /**
+     * Encode a convex hull
+     *
+     * @param hull to encode
+     * @return new array holding the encoding
+     */
+    public static byte[] encode(final ConvexHull hull) {
+        final Writer out = new Writer();
+        hull.encode(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Encode an angle hull
+     *
+     * @param hull to encode
+     * @return new array holding the encoding
+     */
+    public static byte[] encode(final AngleHull hull) {
+        final Writer out = new Writer();
+        out.writeHeader(ANGLE_HULL);
+        hull.encode(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode a convex hull from the position of a buffer on. The position is moved behind the encoding.
+     *
+     * @param buffer to read from
+     * @return decoded hull
+     * @throws IllegalArgumentException if the buffer does not hold the encoding of a convex hull in this version
+     */
+    public static ConvexHull decodeConvexHull(final ByteBuffer buffer) {
+        final Reader in = new Reader(buffer);
+        return ConvexHull.decode(in, in.readHeader());
+    }
+
+    /**
+     * Decode an angle hull from the position of a buffer on. The position is moved behind the encoding.
+     *
+     * @param buffer to read from
+     * @return decoded hull
+     * @throws IllegalArgumentException if the buffer does not hold the encoding of an angle hull in this version
+     */
+    public static AngleHull decodeAngleHull(final ByteBuffer buffer) {
+        final Reader in = new Reader(buffer);
+        checkArgument(in.readHeader() == ANGLE_HULL, "The buffer does not hold an angle hull");
+        return AngleHull.decode(in);
+    }
+
+    /**
+     * Write the encoding of a convex hull to a file, replacing its contents
+     *
+     * @param path to write to
+     * @param hull to encode
+     * @throws IOException if writing fails
+     */
+    public static void write(final Path path, final ConvexHull hull) throws IOException {
+        Files.write(path, encode(hull));
+    }
+
+    /**
+     * Write the encoding of an angle hull to a file, replacing its contents
+     *
+     * @param path to write to
+     * @param hull to encode
+     * @throws IOException if writing fails
+     */
+    public static void write(final Path path, final AngleHull hull) throws IOException {
+        Files.write(path, encode(hull));
+    }
+
+    /**
+     * Read a convex hull from a file written by {@link #write(Path, ConvexHull)}. The file is mapped into memory
+     * and decoded from there.
+     *
+     * @param path to read from
+     * @return decoded hull
+     * @throws IOException if reading fails
+     */
+    public static ConvexHull readConvexHull(final Path path) throws IOException {
+        return decodeConvexHull(map(path));
+    }
+
+    /**
+     * Read an angle hull from a file written by {@link #write(Path, AngleHull)}. The file is mapped into memory
+     * and decoded from there.
+     *
+     * @param path to read from
+     * @return decoded hull
+     * @throws IOException if reading fails
+     */
+    public static AngleHull readAngleHull(final Path path) throws IOException {
+        return decodeAngleHull(map(path));
+    }
+
+    private static ByteBuffer map(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Growable byte array the encoding is written to
+     */
+    static final class Writer {
+
+        private byte[] bytes = new byte[64];
+
+        private int size;
+
+        void writeHeader(final int kind) {
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                writeByte(MAGIC >>> shift);
+            }
+            writeByte(VERSION);
+            writeByte(kind);
+        }
+
+        void writeByte(final int value) {
+            if (this.size == this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, 2 * this.size);
+            }
+            this.bytes[this.size++] = (byte) value;
+        }
+
+        void writeBoolean(final boolean value) {
+            writeByte(value ? 1 : 0);
+        }
+
+        /**
+         * Write an unsigned value in groups of 7 bits, starting with the least significant ones. The highest bit of
+         * every byte tells whether another byte follows.
+         */
+        void writeVarint(final long value) {
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                writeByte((int) (remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            writeByte((int) remaining);
+        }
+
+        /**
+         * Write a signed value zig-zag encoded, so that values of a small magnitude take few bytes
+         */
+        void writeSigned(final long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void writeDouble(final double value) {
+            final long bits = Double.doubleToRawLongBits(value);
+            for (int shift = 0; shift < 64; shift += 8) {
+                writeByte((int) (bits >>> shift));
+            }
+        }
+
+        /**
+         * Write packed points as their number followed by the differences of the coordinates of every point to the
+         * previous one, see {@link PointBuffer#pack(int, int)}
+         */
+        void writePoints(final long[] packed, final int from, final int to) {
+            writeVarint(to - from);
+            long previous = PointBuffer.pack(0, 0);
+            for (int i = from; i < to; i++) {
+                writePoint(packed[i], previous);
+                previous = packed[i];
+            }
+        }
+
+        void writePoints(final PointBuffer points) {
+            writeVarint(points.size());
+            long previous = PointBuffer.pack(0, 0);
+            for (int i = 0; i < points.size(); i++) {
+                writePoint(points.get(i), previous);
+                previous = points.get(i);
+            }
+        }
+
+        void writePoints(final List<Point> points) {
+            writeVarint(points.size());
+            long previous = PointBuffer.pack(0, 0);
+            for (final Point point : points) {
+                final long packed = PointBuffer.pack(point);
+                writePoint(packed, previous);
+                previous = packed;
+            }
+        }
+
+        /**
+         * Write a packed point as the differences of its coordinates to the previous point
+         */
+        void writePoint(final long packed, final long previous) {
+            writeSigned((long) PointBuffer.x(packed) - PointBuffer.x(previous));
+            writeSigned((long) PointBuffer.y(packed) - PointBuffer.y(previous));
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(this.bytes, this.size);
+        }
+    }
+
+    /**
+     * Reads an encoding from a buffer. Malformed encodings are rejected with an {@link IllegalArgumentException}.
+     */
+    static final class Reader {
+
+        private final ByteBuffer buffer;
+
+        private Reader(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Read and check the magic number and the version
+         *
+         * @return kind of the encoded hull
+         */
+        int readHeader() {
+            int magic = 0;
+            for (int i = 0; i < 4; i++) {
+                magic = magic << 8 | readByte();
+            }
+            checkArgument(magic == MAGIC, "The buffer does not hold an encoded hull");
+            final int version = readByte();
+            checkArgument(version == VERSION, "Unsupported version of the encoding: %s", version);
+            return readByte();
+        }
+
+        int readByte() {
+            checkArgument(this.buffer.hasRemaining(), "The encoding is truncated");
+            return this.buffer.get() & 0xFF;
+        }
+
+        boolean readBoolean() {
+            return readByte() != 0;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final int next = readByte();
+                value |= (long) (next & 0x7F) << shift;
+                if ((next & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed variable length quantity");
+        }
+
+        /**
+         * Read a variable length quantity that counts elements of the encoding. Each element takes at least one byte,
+         * so larger counts are malformed.
+         */
+        int readCount() {
+            final long count = readVarint();
+            checkArgument(count <= this.buffer.remaining(), "Malformed count: %s", count);
+            return (int) count;
+        }
+
+        long readSigned() {
+            final long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        int readInt() {
+            return coordinate(readSigned());
+        }
+
+        double readDouble() {
+            long bits = 0;
+            for (int shift = 0; shift < 64; shift += 8) {
+                bits |= (long) readByte() << shift;
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        /**
+         * Read points written by {@link Writer#writePoints(long[], int, int)}
+         *
+         * @return new array of the packed points
+         */
+        long[] readPoints() {
+            final long[] packed = new long[readCount()];
+            int x = 0;
+            int y = 0;
+            for (int i = 0; i < packed.length; i++) {
+                x = coordinate(x + readSigned());
+                y = coordinate(y + readSigned());
+                packed[i] = PointBuffer.pack(x, y);
+            }
+            return packed;
+        }
+
+        /**
+         * Read a point written by {@link Writer#writePoint(long, long)}
+         *
+         * @param previous packed point the differences refer to
+         * @return packed point
+         */
+        long readPoint(final long previous) {
+            final int x = coordinate(PointBuffer.x(previous) + readSigned());
+            final int y = coordinate(PointBuffer.y(previous) + readSigned());
+            return PointBuffer.pack(x, y);
+        }
+
+        PointBuffer readPointBuffer() {
+            return new PointBuffer(readPoints());
+        }
+
+        private static int coordinate(final long value) {
+            checkArgument(value == (int) value, "Malformed coordinate: %s", value);
+            return (int) value;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.cathive.convex.geometry;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Exact orientation of three points given by <code>long</code> or <code>double</code> coordinates.
+ * The orientation is first calculated with floating point arithmetic. Only if the result is closer to zero than the
+ * rounding error could be, which happens for nearly collinear points, it is calculated again with exact arithmetic.
+ *
+ * @author Alexander Erben
+ */
+final class Orientation {
+
+    /**
+     * Unit roundoff of double precision arithmetic
+     */
+    private static final double EPSILON = 0x1p-53;
+
+    /**
+     * Relative error bound of the floating point determinant of double coordinates, as given by Shewchuk
+     */
+    private static final double DOUBLE_BOUND = (3 + 16 * EPSILON) * EPSILON;
+
+    /**
+     * Relative error bound of the floating point determinant of long differences, which are rounded when they are
+     * converted to double. Two roundings more than for {@link #DOUBLE_BOUND}, plus a safety margin.
+     */
+    private static final double LONG_BOUND = 8 * EPSILON;
+
+    /**
+     * Greatest magnitude of an integer up to which all integers are exactly representable as double
+     */
+    private static final double EXACT_INTEGERS = 0x1p53;
+
+    private Orientation() {
+    }
+
+    /**
+     * Calculate the orientation of three points given by long coordinates
+     *
+     * @return 1 if the points are in counter-clockwise order, -1 if they are in clockwise order and 0 if they are
+     * collinear
+     */
+    static int of(final long ax, final long ay, final long bx, final long by, final long cx, final long cy) {
+        final long abx = bx - ax;
+        final long aby = by - ay;
+        final long acx = cx - ax;
+        final long acy = cy - ay;
+        if (overflows(bx, ax, abx) || overflows(by, ay, aby) || overflows(cx, ax, acx) || overflows(cy, ay, acy)) {
+            return exact(ax, ay, bx, by, cx, cy);
+        }
+        if (((abx + Integer.MAX_VALUE) | (aby + Integer.MAX_VALUE) | (acx + Integer.MAX_VALUE)
+                | (acy + Integer.MAX_VALUE)) >>> 32 == 0) {
+            return Long.signum(abx * acy - aby * acx);
+        }
+        final double left = (double) abx * (double) acy;
+        final double right = (double) aby * (double) acx;
+        final double determinant = left - right;
+        final double bound = LONG_BOUND * (Math.abs(left) + Math.abs(right));
+        if (determinant > bound || -determinant > bound) {
+            return determinant > 0 ? 1 : -1;
+        }
+        return exact(ax, ay, bx, by, cx, cy);
+    }
+
+    /**
+     * Calculate the orientation of three points given by finite double coordinates
+     *
+     * @return 1 if the points are in counter-clockwise order, -1 if they are in clockwise order and 0 if they are
+     * collinear
+     */
+    static int of(final double ax, final double ay, final double bx, final double by, final double cx,
+                  final double cy) {
+        final double left = (bx - ax) * (cy - ay);
+        final double right = (by - ay) * (cx - ax);
+        final double determinant = left - right;
+        final double bound = DOUBLE_BOUND * (Math.abs(left) + Math.abs(right));
+        if ((determinant > bound || -determinant > bound) && bound >= Double.MIN_NORMAL) {
+            return determinant > 0 ? 1 : -1;
+        }
+        if (Math.abs(left) < EXACT_INTEGERS && Math.abs(right) < EXACT_INTEGERS && isInteger(ax) && isInteger(ay)
+                && isInteger(bx) && isInteger(by) && isInteger(cx) && isInteger(cy)) {
+            // Differences and products of integers are exact as long as they are small enough to be represented
+            return left > right ? 1 : left == right ? 0 : -1;
+        }
+        return exact(ax, ay, bx, by, cx, cy);
+    }
+
+    /**
+     * Whether the difference of two longs overflowed
+     *
+     * @param minuend    of the difference
+     * @param subtrahend of the difference
+     * @param difference as calculated
+     * @return true if the difference is wrong
+     */
+    private static boolean overflows(final long minuend, final long subtrahend, final long difference) {
+        return ((minuend ^ subtrahend) & (minuend ^ difference)) < 0;
+    }
+
+    private static boolean isInteger(final double value) {
+        return value == Math.rint(value);
+    }
+
+    private static int exact(final long ax, final long ay, final long bx, final long by, final long cx,
+                             final long cy) {
+        final BigInteger abx = BigInteger.valueOf(bx).subtract(BigInteger.valueOf(ax));
+        final BigInteger aby = BigInteger.valueOf(by).subtract(BigInteger.valueOf(ay));
+        final BigInteger acx = BigInteger.valueOf(cx).subtract(BigInteger.valueOf(ax));
+        final BigInteger acy = BigInteger.valueOf(cy).subtract(BigInteger.valueOf(ay));
+        return abx.multiply(acy).compareTo(aby.multiply(acx));
+    }
+
+    private static int exact(final double ax, final double ay, final double bx, final double by, final double cx,
+                             final double cy) {
+        final BigDecimal abx = new BigDecimal(bx).subtract(new BigDecimal(ax));
+        final BigDecimal aby = new BigDecimal(by).subtract(new BigDecimal(ay));
+        final BigDecimal acx = new BigDecimal(cx).subtract(new BigDecimal(ax));
+        final BigDecimal acy = new BigDecimal(cy).subtract(new BigDecimal(ay));
+        return abx.multiply(acy).compareTo(aby.multiply(acx));
+    }
+}
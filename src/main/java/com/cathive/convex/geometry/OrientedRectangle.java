@@ -0,0 +1,102 @@
+package com.cathive.convex.geometry;
+
+/**
+ * Rectangle that may be rotated against the axes, see {@link ConvexHullSnapshot#getMinimumAreaRectangle()}.
+ * <p>
+ * The rectangle is spanned from an origin by its width along a unit direction and by its height perpendicular
+ * to it, on the right-hand side of the direction. The corners are numbered clockwise.
+ *
+ * @author Alexander Erben
+ */
+public final class OrientedRectangle {
+
+    private final double[] cornersX = new double[4];
+
+    private final double[] cornersY = new double[4];
+
+    private final double ux, uy;
+
+    private final double width, height;
+
+    /**
+     * Create a rectangle at a point of one of its sides
+     *
+     * @param x      X value of the point
+     * @param y      Y value of the point
+     * @param ux     X value of the unit direction of the side
+     * @param uy     Y value of the unit direction of the side
+     * @param from   position of the first corner of the side relative to the point, along the direction
+     * @param to     position of the second corner of the side relative to the point, along the direction
+     * @param height of the rectangle
+     */
+    OrientedRectangle(final double x, final double y, final double ux, final double uy, final double from,
+                      final double to, final double height) {
+        this.ux = ux;
+        this.uy = uy;
+        this.width = to - from;
+        this.height = height;
+        final double[] along = {from, to, to, from};
+        final double[] across = {0, 0, height, height};
+        for (int i = 0; i < 4; i++) {
+            // (uy, -ux) is the normal on the right-hand side of the direction
+            this.cornersX[i] = x + along[i] * ux + across[i] * uy;
+            this.cornersY[i] = y + along[i] * uy - across[i] * ux;
+        }
+    }
+
+    /**
+     * Return the X value of a corner
+     *
+     * @param i index of the corner between 0 and 3
+     * @return X value
+     */
+    public double getCornerX(final int i) {
+        return this.cornersX[i];
+    }
+
+    /**
+     * Return the Y value of a corner
+     *
+     * @param i index of the corner between 0 and 3
+     * @return Y value
+     */
+    public double getCornerY(final int i) {
+        return this.cornersY[i];
+    }
+
+    /**
+     * Return the angle of the side from the first to the second corner against the X axis
+     *
+     * @return angle between -PI and PI
+     */
+    public Angle getAngle() {
+        return Angle.fromRad(Math.atan2(this.uy, this.ux));
+    }
+
+    /**
+     * Return the length of the side from the first to the second corner
+     *
+     * @return width
+     */
+    public double getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Return the length of the side from the second to the third corner
+     *
+     * @return height
+     */
+    public double getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Return the area of the rectangle, the product of its width and height
+     *
+     * @return area
+     */
+    public double getArea() {
+        return this.width * this.height;
+    }
+}
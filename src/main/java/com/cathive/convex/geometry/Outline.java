@@ -1,10 +1,9 @@
 package com.cathive.convex.geometry;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Lists;
 
 import java.util.EnumMap;
-import java.util.List;
+import java.util.Set;
 
 import static com.cathive.convex.geometry.Region.*;
 import static com.google.common.base.Preconditions.checkState;
@@ -17,9 +16,9 @@ import static com.google.common.base.Preconditions.checkState;
  */
 final class Outline {
 
-    private final EnumMap<Region, List<Point>> regions;
+    private final EnumMap<Region, PointBuffer> regions;
 
-    private Outline(EnumMap<Region, List<Point>> regions) {
+    private Outline(EnumMap<Region, PointBuffer> regions) {
         for (final Region region : Region.values()) {
             Preconditions.checkArgument(regions.containsKey(region), "Region not defined: " + region);
         }
@@ -35,18 +34,146 @@ final class Outline {
      * @return the outline
      */
     static Outline of(final SortedPointSet input) {
-        checkState(input.asList().size() > 3, "The input list size must be gt 3!");
+        checkState(input.size() > 3, "The input list size must be gt 3!");
         final SweepLine left = input.apply(new SweepLine(), SortedPointSet.ApplicationOrder.LEFT_TO_RIGHT);
         final SweepLine right = input.apply(new SweepLine(), SortedPointSet.ApplicationOrder.RIGHT_TO_LEFT);
-        final EnumMap<Region, List<Point>> regions = new EnumMap<>(Region.class);
+        final EnumMap<Region, PointBuffer> regions = new EnumMap<>(Region.class);
         regions.put(NW, left.upper());
-        regions.put(NE, Lists.reverse(right.upper()));
+        regions.put(NE, right.upper().reverse());
         regions.put(SE, right.lower());
-        regions.put(SW, Lists.reverse(left.lower()));
+        regions.put(SW, left.lower().reverse());
         return new Outline(regions);
     }
 
-    List<Point> partForRegion(Region region) {
+    /**
+     * Calculate the outline of a changed point set, reusing the parts of the regions that are not affected
+     * by the change. Only the sweeps that produce the affected regions are performed again.
+     *
+     * @param input    to calculate the outline for. Must be longer than 3 elements.
+     * @param affected regions whose parts may have changed, see {@link #isAffectedBy(Region, long[], long[])}
+     * @return the outline
+     */
+    Outline update(final SortedPointSet input, final Set<Region> affected) {
+        checkState(input.size() > 3, "The input list size must be gt 3!");
+        final EnumMap<Region, PointBuffer> regions = new EnumMap<>(this.regions);
+        if (affected.contains(NW) || affected.contains(SW)) {
+            final SweepLine left = input.apply(new SweepLine(), SortedPointSet.ApplicationOrder.LEFT_TO_RIGHT);
+            regions.put(NW, left.upper());
+            regions.put(SW, left.lower().reverse());
+        }
+        if (affected.contains(NE) || affected.contains(SE)) {
+            final SweepLine right = input.apply(new SweepLine(), SortedPointSet.ApplicationOrder.RIGHT_TO_LEFT);
+            regions.put(NE, right.upper().reverse());
+            regions.put(SE, right.lower());
+        }
+        return new Outline(regions);
+    }
+
+    /**
+     * Return the points of the parts of all regions. When points are added, no other point of the input
+     * can become a vertex of the hull.
+     *
+     * @return sorted point set of the outline
+     */
+    SortedPointSet points() {
+        final PointBuffer points = new PointBuffer();
+        for (final PointBuffer part : this.regions.values()) {
+            points.addAll(part);
+        }
+        return SortedPointSet.ofUnculled(points);
+    }
+
+    /**
+     * Check if the part of a region may change if points are added to and removed from the point set.
+     * The part changes if a removed point is contained in it or if an added point is not dominated by it,
+     * which means that no point is discovered before the added point by the sweep of the region that lies
+     * further outside in the direction of the region.
+     *
+     * @param region  to check
+     * @param added   packed points to add
+     * @param removed packed points to remove
+     * @return true if the part of the region may change
+     */
+    boolean isAffectedBy(final Region region, final long[] added, final long[] removed) {
+        final PointBuffer part = this.regions.get(region);
+        // the parts of NW and NE are in ascending order, the others in descending order
+        final boolean ascending = region == NW || region == NE;
+        // the parts of NW and SW are discovered from left to right, the others from right to left
+        final boolean leftToRight = region == NW || region == SW;
+        final boolean upper = region == NW || region == NE;
+        for (final long point : removed) {
+            final int index = search(part, ascending, point);
+            if (index < part.size() && part.get(index) == point) {
+                return true;
+            }
+        }
+        for (final long point : added) {
+            final int index = search(part, ascending, point);
+            // the last point of the part that is discovered before the added point
+            final int previous = ascending == leftToRight ? index - 1
+                    : index < part.size() && part.get(index) == point ? index + 1 : index;
+            if (previous < 0 || previous >= part.size()) {
+                return true;
+            }
+            final int y = PointBuffer.y(part.get(previous));
+            if (upper ? y < PointBuffer.y(point) : y > PointBuffer.y(point)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the index of the first point of a sorted part that does not come before the given point
+     *
+     * @param part      to search in
+     * @param ascending true if the part is in ascending order, false if it is in descending order
+     * @param point     to search for
+     * @return index, which is the size of the part if all points come before the given point
+     */
+    private static int search(final PointBuffer part, final boolean ascending, final long point) {
+        int lo = 0;
+        int hi = part.size();
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            final long current = part.get(mid);
+            if (ascending ? current < point : current > point) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Read an outline written by {@link #encode(HullCodec.Writer)}
+     *
+     * @param in to read from
+     * @return the outline
+     */
+    static Outline decode(final HullCodec.Reader in) {
+        final EnumMap<Region, PointBuffer> regions = new EnumMap<>(Region.class);
+        for (final Region region : Region.values()) {
+            final PointBuffer part = in.readPointBuffer();
+            Preconditions.checkArgument(part.size() > 0, "The encoded part of %s is empty", region);
+            regions.put(region, part);
+        }
+        return new Outline(regions);
+    }
+
+    /**
+     * Write the parts of all regions in the order of {@link Region#values()}, see {@link HullCodec}
+     *
+     * @param out to write to
+     */
+    void encode(final HullCodec.Writer out) {
+        for (final Region region : Region.values()) {
+            out.writePoints(this.regions.get(region));
+        }
+    }
+
+    PointBuffer partForRegion(Region region) {
         return this.regions.get(region);
     }
 }
\ No newline at end of file
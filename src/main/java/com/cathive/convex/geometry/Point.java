@@ -1,7 +1,5 @@
 package com.cathive.convex.geometry;
 
-import java.util.Comparator;
-
 /**
  * This class represents an immutable point consisting of an X and Y coordinate given as integer numbers.
  * @author Alexander Erben
@@ -31,6 +29,17 @@ public final class Point implements Comparable<Point> {
         return new Point(x.intValue(), y.intValue());
     }
 
+    /**
+     * Create a new point from integral values without boxing them
+     *
+     * @param x X value of the coordinate
+     * @param y Y value of the coordinate
+     * @return new immutable point.
+     */
+    static Point of(final int x, final int y) {
+        return new Point(x, y);
+    }
+
     /**
      * Constructor
      *
@@ -162,13 +171,11 @@ public final class Point implements Comparable<Point> {
      */
     @Override
     public int compareTo(final Point o) {
-        return ((Comparator<Point>) (p1, p2) -> {
-            if (p1.x < p2.x) return -1;
-            else if (p1.x > p2.x) return 1;
-            else if (p1.y < p2.y) return -1;
-            else if (p1.y > p2.y) return 1;
-            return 0;
-        }).compare(this, o);
+        if (this.x < o.x) return -1;
+        else if (this.x > o.x) return 1;
+        else if (this.y < o.y) return -1;
+        else if (this.y > o.y) return 1;
+        return 0;
     }
 
     @Override
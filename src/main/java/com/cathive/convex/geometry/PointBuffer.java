@@ -0,0 +1,268 @@
+package com.cathive.convex.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A growable buffer of points that are stored as packed primitive <code>long</code> values instead of
+ * {@link Point} objects. The X value of a point occupies the upper 32 bits, the Y value the lower 32 bits
+ * with its sign bit flipped. That way, the natural ordering of the packed values is the same as the ordering
+ * defined by {@link Point#compareTo(Point)}.
+ * <p>
+ * Used by the hull algorithm so that {@link Point} objects only have to be created for the vertices of the hull.
+ *
+ * @author Alexander Erben
+ */
+final class PointBuffer {
+
+    /**
+     * The packed points. Only the first {@link #size} elements are valid.
+     */
+    private long[] points;
+
+    /**
+     * Number of points in this buffer
+     */
+    private int size;
+
+    /**
+     * Create an empty buffer with a small initial capacity
+     */
+    PointBuffer() {
+        this(16);
+    }
+
+    /**
+     * Create an empty buffer
+     *
+     * @param capacity initial capacity
+     */
+    PointBuffer(final int capacity) {
+        this.points = new long[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Create a buffer that holds packed points
+     *
+     * @param packed points, which are kept by the buffer
+     */
+    PointBuffer(final long[] packed) {
+        this.points = packed;
+        this.size = packed.length;
+    }
+
+    /**
+     * Pack the coordinates of a point into a single long value.
+     *
+     * @param x X value
+     * @param y Y value
+     * @return packed point
+     */
+    static long pack(final int x, final int y) {
+        return ((long) x << 32) | ((y ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Pack a point into a single long value.
+     *
+     * @param point to pack
+     * @return packed point
+     */
+    static long pack(final Point point) {
+        return pack(point.getX(), point.getY());
+    }
+
+    /**
+     * Pack all points of a collection
+     *
+     * @param points to pack
+     * @return new array of packed points in iteration order
+     */
+    static long[] pack(final Collection<Point> points) {
+        final long[] packed = new long[points.size()];
+        int i = 0;
+        for (final Point point : points) {
+            packed[i++] = pack(point);
+        }
+        return packed;
+    }
+
+    /**
+     * Pack the points given by coordinate arrays. The i-th point is made up of <code>xs[i]</code> and
+     * <code>ys[i]</code>.
+     *
+     * @param xs X values
+     * @param ys Y values
+     * @param n  number of points to read from the arrays
+     * @return new array of packed points of length n
+     */
+    static long[] pack(final int[] xs, final int[] ys, final int n) {
+        checkArgument(n >= 0 && n <= xs.length && n <= ys.length, "n must be between 0 and the array lengths");
+        final long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            packed[i] = pack(xs[i], ys[i]);
+        }
+        return packed;
+    }
+
+    /**
+     * Extract the X value of a packed point
+     *
+     * @param packed point
+     * @return X value
+     */
+    static int x(final long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * Extract the Y value of a packed point
+     *
+     * @param packed point
+     * @return Y value
+     */
+    static int y(final long packed) {
+        return (int) packed ^ Integer.MIN_VALUE;
+    }
+
+    /**
+     * Create a {@link Point} from a packed point
+     *
+     * @param packed point
+     * @return new point with the same coordinates
+     */
+    static Point toPoint(final long packed) {
+        return Point.of(x(packed), y(packed));
+    }
+
+    /**
+     * Append a packed point to the end of this buffer
+     *
+     * @param packed point to add
+     */
+    void add(final long packed) {
+        if (this.size == this.points.length) {
+            this.points = Arrays.copyOf(this.points, this.size + (this.size >> 1) + 1);
+        }
+        this.points[this.size++] = packed;
+    }
+
+    /**
+     * Append all points of another buffer to the end of this buffer
+     *
+     * @param other buffer to add
+     */
+    void addAll(final PointBuffer other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.points[i]);
+        }
+    }
+
+    /**
+     * Get the packed point at the given index
+     *
+     * @param index of the point. Must be smaller than {@link #size()}.
+     * @return packed point
+     */
+    long get(final int index) {
+        return this.points[index];
+    }
+
+    /**
+     * Replace the packed point at the given index
+     *
+     * @param index of the point. Must be smaller than {@link #size()}.
+     * @param packed new point
+     */
+    void set(final int index, final long packed) {
+        this.points[index] = packed;
+    }
+
+    /**
+     * Number of points in this buffer
+     *
+     * @return size
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Drop all points from the given index on.
+     *
+     * @param newSize new size of the buffer. Must not be greater than the current size.
+     */
+    void truncate(final int newSize) {
+        this.size = newSize;
+    }
+
+    /**
+     * Return a copy of this buffer in which the points are in reverse order
+     *
+     * @return reversed copy
+     */
+    PointBuffer reverse() {
+        final PointBuffer reversed = new PointBuffer(this.size);
+        for (int i = this.size - 1; i >= 0; i--) {
+            reversed.add(this.points[i]);
+        }
+        return reversed;
+    }
+
+    /**
+     * Return a copy of this buffer
+     *
+     * @return copy
+     */
+    PointBuffer copy() {
+        final PointBuffer copy = new PointBuffer(this.size);
+        System.arraycopy(this.points, 0, copy.points, 0, this.size);
+        copy.size = this.size;
+        return copy;
+    }
+
+    /**
+     * Create {@link Point} objects for all points in this buffer
+     *
+     * @return new list of points in buffer order
+     */
+    List<Point> toPoints() {
+        final List<Point> result = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            result.add(toPoint(this.points[i]));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PointBuffer)) return false;
+        final PointBuffer other = (PointBuffer) o;
+        if (this.size != other.size) return false;
+        for (int i = 0; i < this.size; i++) {
+            if (this.points[i] != other.points[i]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < this.size; i++) {
+            result = 31 * result + Long.hashCode(this.points[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PointBuffer{" +
+                "points=" + toPoints() +
+                '}';
+    }
+}
@@ -0,0 +1,252 @@
+package com.cathive.convex.geometry;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Calculates the convex hull of points given by <code>long</code> or <code>double</code> coordinates, which cannot
+ * be represented by {@link Point} without loss. The orientation of three points is decided exactly by
+ * {@link Orientation}, which only falls back to exact arithmetic for nearly collinear points, so the result is
+ * correct for the full range of the coordinates.
+ * <p>
+ * Points inside of the quadrilateral of the points with the extreme X and Y values are culled in a linear pass,
+ * the remaining points are processed with the monotone chain algorithm in O(n log n) time. The hull is given as the indices of its
+ * vertices in the coordinate arrays, in the same order as {@link ConvexHull#getPoints()}: clockwise, starting at
+ * the lexicographically smallest vertex. Points on an edge of the hull are no vertices. If a point is contained
+ * more than once, only the index of one occurrence is returned.
+ *
+ * @author Alexander Erben
+ */
+public final class PreciseConvexHull {
+
+    /**
+     * Length of the runs that are sorted by insertion before merging
+     */
+    private static final int RUN = 32;
+
+    private PreciseConvexHull() {
+    }
+
+    /**
+     * Calculate the vertices of the hull of points given by long coordinates. The i-th point is made up of
+     * <code>xs[i]</code> and <code>ys[i]</code>.
+     *
+     * @param xs X values of the points
+     * @param ys Y values of the points
+     * @param n  number of points to read from the arrays
+     * @return indices of the vertices of the hull
+     */
+    public static int[] vertices(final long[] xs, final long[] ys, final int n) {
+        checkCoordinates(xs.length, ys.length, n);
+        return vertices(new Coordinates() {
+
+            @Override
+            int compare(final int i, final int j) {
+                final int x = Long.compare(xs[i], xs[j]);
+                return x != 0 ? x : Long.compare(ys[i], ys[j]);
+            }
+
+            @Override
+            int compareTransposed(final int i, final int j) {
+                final int y = Long.compare(ys[i], ys[j]);
+                return y != 0 ? y : Long.compare(xs[i], xs[j]);
+            }
+
+            @Override
+            int orientation(final int i, final int j, final int k) {
+                return Orientation.of(xs[i], ys[i], xs[j], ys[j], xs[k], ys[k]);
+            }
+        }, n);
+    }
+
+    /**
+     * Calculate the vertices of the hull of points given by double coordinates. The i-th point is made up of
+     * <code>xs[i]</code> and <code>ys[i]</code>. The coordinates are taken as exact values, so no tolerance is
+     * applied to nearly collinear points.
+     *
+     * @param xs X values of the points. Must be finite.
+     * @param ys Y values of the points. Must be finite.
+     * @param n  number of points to read from the arrays
+     * @return indices of the vertices of the hull
+     */
+    public static int[] vertices(final double[] xs, final double[] ys, final int n) {
+        checkCoordinates(xs.length, ys.length, n);
+        for (int i = 0; i < n; i++) {
+            checkArgument(!Double.isNaN(xs[i] - xs[i]) && !Double.isNaN(ys[i] - ys[i]),
+                    "The coordinates of point %s are not finite", i);
+        }
+        return vertices(new Coordinates() {
+
+            @Override
+            int compare(final int i, final int j) {
+                // Unlike Double.compare, this does not distinguish between 0.0 and -0.0
+                if (xs[i] != xs[j]) {
+                    return xs[i] < xs[j] ? -1 : 1;
+                }
+                return ys[i] < ys[j] ? -1 : ys[i] == ys[j] ? 0 : 1;
+            }
+
+            @Override
+            int compareTransposed(final int i, final int j) {
+                if (ys[i] != ys[j]) {
+                    return ys[i] < ys[j] ? -1 : 1;
+                }
+                return xs[i] < xs[j] ? -1 : xs[i] == xs[j] ? 0 : 1;
+            }
+
+            @Override
+            int orientation(final int i, final int j, final int k) {
+                return Orientation.of(xs[i], ys[i], xs[j], ys[j], xs[k], ys[k]);
+            }
+        }, n);
+    }
+
+    private static void checkCoordinates(final int xs, final int ys, final int n) {
+        checkArgument(n >= 0 && n <= xs && n <= ys, "Cannot read %s points from arrays of length %s and %s",
+                n, xs, ys);
+    }
+
+    private static int[] vertices(final Coordinates coordinates, final int n) {
+        final int[] sorted = cull(coordinates, n);
+        final int size = sorted.length;
+        sort(coordinates, sorted);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || coordinates.compare(sorted[distinct - 1], sorted[i]) != 0) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        if (distinct < 3) {
+            final int[] vertices = new int[distinct];
+            System.arraycopy(sorted, 0, vertices, 0, distinct);
+            return vertices;
+        }
+        final int[] hull = new int[2 * distinct];
+        int top = chain(coordinates, sorted, 0, distinct, 1, hull, 0);
+        top = chain(coordinates, sorted, distinct - 1, -1, -1, hull, top - 1);
+        final int[] vertices = new int[top - 1];
+        System.arraycopy(hull, 0, vertices, 0, top - 1);
+        return vertices;
+    }
+
+    /**
+     * Append the chain of the hull that turns clockwise from the first to the last of the given points
+     *
+     * @param coordinates of the points
+     * @param sorted      indices of the points in lexicographical order
+     * @param from        first position in the sorted indices, inclusive
+     * @param to          last position in the sorted indices, exclusive
+     * @param step        1 to walk forwards, -1 to walk backwards
+     * @param hull        to append the chain to
+     * @param start       position of the first point of the chain in the hull
+     * @return position after the last point of the chain
+     */
+    private static int chain(final Coordinates coordinates, final int[] sorted, final int from, final int to,
+                             final int step, final int[] hull, final int start) {
+        int top = start;
+        for (int i = from; i != to; i += step) {
+            while (top - start >= 2 && coordinates.orientation(hull[top - 2], hull[top - 1], sorted[i]) >= 0) {
+                top--;
+            }
+            hull[top++] = sorted[i];
+        }
+        return top;
+    }
+
+    /**
+     * Find the indices of the points that are not strictly inside of the quadrilateral spanned by the points with
+     * the smallest and greatest X and Y values, which cannot be vertices of the hull
+     *
+     * @param coordinates of the points
+     * @param n           number of points
+     * @return indices of the remaining points
+     */
+    private static int[] cull(final Coordinates coordinates, final int n) {
+        if (n == 0) {
+            return new int[0];
+        }
+        int left = 0, bottom = 0, right = 0, top = 0;
+        for (int i = 1; i < n; i++) {
+            left = coordinates.compare(i, left) < 0 ? i : left;
+            right = coordinates.compare(i, right) > 0 ? i : right;
+            bottom = coordinates.compareTransposed(i, bottom) < 0 ? i : bottom;
+            top = coordinates.compareTransposed(i, top) > 0 ? i : top;
+        }
+        final int[] remaining = new int[n];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (coordinates.orientation(left, bottom, i) <= 0 || coordinates.orientation(bottom, right, i) <= 0
+                    || coordinates.orientation(right, top, i) <= 0 || coordinates.orientation(top, left, i) <= 0) {
+                remaining[size++] = i;
+            }
+        }
+        final int[] result = new int[size];
+        System.arraycopy(remaining, 0, result, 0, size);
+        return result;
+    }
+
+    /**
+     * Sort indices of points lexicographically with a merge sort
+     *
+     * @param coordinates of the points
+     * @param indices     to sort in place
+     */
+    private static void sort(final Coordinates coordinates, final int[] indices) {
+        final int n = indices.length;
+        int[] sorted = indices;
+        for (int from = 0; from < n; from += RUN) {
+            final int to = Math.min(from + RUN, n);
+            for (int i = from + 1; i < to; i++) {
+                final int index = sorted[i];
+                int j = i;
+                while (j > from && coordinates.compare(sorted[j - 1], index) > 0) {
+                    sorted[j] = sorted[j - 1];
+                    j--;
+                }
+                sorted[j] = index;
+            }
+        }
+        int[] merged = new int[n];
+        for (int width = RUN; width < n; width *= 2) {
+            for (int from = 0; from < n; from += 2 * width) {
+                final int middle = Math.min(from + width, n);
+                final int to = Math.min(from + 2 * width, n);
+                int left = from;
+                int right = middle;
+                for (int i = from; i < to; i++) {
+                    if (left < middle && (right == to || coordinates.compare(sorted[left], sorted[right]) <= 0)) {
+                        merged[i] = sorted[left++];
+                    } else {
+                        merged[i] = sorted[right++];
+                    }
+                }
+            }
+            final int[] swap = sorted;
+            sorted = merged;
+            merged = swap;
+        }
+        if (sorted != indices) {
+            System.arraycopy(sorted, 0, indices, 0, n);
+        }
+    }
+
+    /**
+     * Access to the coordinates of the points by their index
+     */
+    private abstract static class Coordinates {
+
+        /**
+         * Compare two points lexicographically
+         */
+        abstract int compare(int i, int j);
+
+        /**
+         * Compare two points lexicographically by their Y value first
+         */
+        abstract int compareTransposed(int i, int j);
+
+        /**
+         * Orientation of three points, see {@link Orientation}
+         */
+        abstract int orientation(int i, int j, int k);
+    }
+}
@@ -0,0 +1,167 @@
+package com.cathive.convex.geometry;
+
+/**
+ * Shape metrics of a convex polygon calculated with the rotating calipers of Shamos and Toussaint in O(h) time,
+ * where h is the number of vertices.
+ * <p>
+ * For every edge of the polygon, the vertices that are extreme along the edge, perpendicular to it and against it
+ * are tracked by pointers that only move forward while the edges are visited in order. Whether a pointer moves
+ * is decided with {@link Determinant} on the edge vectors, so the decisions are exact and consistent with the
+ * orientation tests of the hull. Only the resulting distances and areas are calculated with floating point numbers.
+ *
+ * @author Alexander Erben
+ */
+final class RotatingCalipers {
+
+    /**
+     * Vertices of a strictly convex polygon of at least 3 vertices in clockwise order
+     */
+    private final int[] xs, ys;
+
+    private final int h;
+
+    RotatingCalipers(final int[] xs, final int[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+        this.h = xs.length;
+    }
+
+    /**
+     * Find the two vertices farthest apart, which are an antipodal pair
+     *
+     * @return indices of the vertices
+     */
+    int[] diameter() {
+        final int[] diameter = new int[2];
+        double best = -1;
+        int j = 1;
+        for (int i = 0; i < this.h; i++) {
+            j = antipodal(i, Math.max(j, i + 1));
+            // the pointer is antipodal to both vertices of the edge
+            for (int vertex = i; vertex <= i + 1; vertex++) {
+                final double distance = squaredDistance(vertex, j);
+                if (distance > best) {
+                    best = distance;
+                    diameter[0] = vertex % this.h;
+                    diameter[1] = j % this.h;
+                }
+            }
+        }
+        return diameter;
+    }
+
+    /**
+     * Calculate the smallest distance of two parallel lines that enclose the polygon. One of the lines always
+     * contains an edge.
+     *
+     * @return minimum width
+     */
+    double minimumWidth() {
+        double best = Double.POSITIVE_INFINITY;
+        int j = 1;
+        for (int i = 0; i < this.h; i++) {
+            j = antipodal(i, Math.max(j, i + 1));
+            best = Math.min(best, height(i, j));
+        }
+        return best;
+    }
+
+    /**
+     * Find the enclosing rectangle of the smallest area. One of its sides always contains an edge.
+     *
+     * @return minimum-area rectangle
+     */
+    OrientedRectangle minimumAreaRectangle() {
+        double best = Double.POSITIVE_INFINITY;
+        OrientedRectangle rectangle = null;
+        int k = 1;
+        int j = 1;
+        int m = 1;
+        for (int i = 0; i < this.h; i++) {
+            k = Math.max(k, i + 1);
+            while (dotSign(i, k) > 0) {
+                k++;
+            }
+            j = antipodal(i, Math.max(j, k));
+            m = Math.max(m, j);
+            while (dotSign(i, m) < 0) {
+                m++;
+            }
+            final double length = Math.sqrt(squaredDistance(i, i + 1));
+            final double ux = (this.xs[(i + 1) % this.h] - (double) this.xs[i]) / length;
+            final double uy = (this.ys[(i + 1) % this.h] - (double) this.ys[i]) / length;
+            final double from = projection(i, m, ux, uy);
+            final double to = projection(i, k, ux, uy);
+            final double height = height(i, j);
+            if ((to - from) * height < best) {
+                best = (to - from) * height;
+                rectangle = new OrientedRectangle(this.xs[i], this.ys[i], ux, uy, from, to, height);
+            }
+        }
+        return rectangle;
+    }
+
+    /**
+     * Move a pointer forward to the vertex that is farthest from the line through an edge. Moving on increases
+     * the distance as long as the edge at the pointer turns by less than 180 degrees against the given edge.
+     *
+     * @param edge  index of the edge from vertex <code>edge</code> to its successor
+     * @param start pointer to start from
+     * @return pointer to the farthest vertex, which may exceed h
+     */
+    private int antipodal(final int edge, final int start) {
+        int j = start;
+        while (crossSign(edge, j) < 0) {
+            j++;
+        }
+        return j;
+    }
+
+    /**
+     * Orientation of the vectors of two edges, see {@link Determinant}
+     */
+    private int crossSign(final int a, final int b) {
+        return Long.signum(Determinant.of(0, 0, edgeX(a), edgeY(a), edgeX(b), edgeY(b)));
+    }
+
+    /**
+     * Sign of the dot product of the vectors of two edges. The dot product of two vectors is the determinant of
+     * the first vector and the second one rotated by 90 degrees.
+     */
+    private int dotSign(final int a, final int b) {
+        return Long.signum(Determinant.of(0, 0, edgeX(a), edgeY(a), -edgeY(b), edgeX(b)));
+    }
+
+    private long edgeX(final int i) {
+        return (long) this.xs[(i + 1) % this.h] - this.xs[i % this.h];
+    }
+
+    private long edgeY(final int i) {
+        return (long) this.ys[(i + 1) % this.h] - this.ys[i % this.h];
+    }
+
+    private double squaredDistance(final int a, final int b) {
+        final double dx = (double) this.xs[b % this.h] - this.xs[a % this.h];
+        final double dy = (double) this.ys[b % this.h] - this.ys[a % this.h];
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Distance of a vertex from the line through an edge
+     */
+    private double height(final int edge, final int vertex) {
+        final double ex = edgeX(edge);
+        final double ey = edgeY(edge);
+        final double vx = (double) this.xs[vertex % this.h] - this.xs[edge];
+        final double vy = (double) this.ys[vertex % this.h] - this.ys[edge];
+        return Math.abs(ex * vy - ey * vx) / Math.sqrt(ex * ex + ey * ey);
+    }
+
+    /**
+     * Position of a vertex along the direction of an edge, relative to the start of the edge
+     */
+    private double projection(final int edge, final int vertex, final double ux, final double uy) {
+        return ((double) this.xs[vertex % this.h] - this.xs[edge]) * ux
+                + ((double) this.ys[vertex % this.h] - this.ys[edge]) * uy;
+    }
+}
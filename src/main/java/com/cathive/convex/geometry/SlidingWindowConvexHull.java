@@ -0,0 +1,165 @@
+package com.cathive.convex.geometry;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The convex hull of the most recent points of a time-ordered stream. The window either contains a fixed number
+ * of points or the points of a fixed period of time.
+ * <p>
+ * The points of the window are kept in a {@link DynamicConvexHull}, so adding a point and expiring the oldest one
+ * costs O(log^2 n) expected time. As the window may contain a point more than once, the points are counted and
+ * only removed from the hull when their last occurrence expires.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Alexander Erben
+ */
+public final class SlidingWindowConvexHull {
+
+    /**
+     * Maximal number of points in the window, {@link Integer#MAX_VALUE} for windows of a period of time
+     */
+    private final int capacity;
+
+    /**
+     * Length of the period of time covered by the window, {@link Long#MAX_VALUE} for windows of a number of points
+     */
+    private final long duration;
+
+    /**
+     * Points of the window from the oldest to the most recent one
+     */
+    private final Deque<Entry> entries = new ArrayDeque<>();
+
+    /**
+     * Number of occurrences of each point in the window
+     */
+    private final Multiset<Point> occurrences = HashMultiset.create();
+
+    private final DynamicConvexHull hull = new DynamicConvexHull();
+
+    /**
+     * Most recent timestamp
+     */
+    private long now;
+
+    private SlidingWindowConvexHull(final int capacity, final long duration) {
+        this.capacity = capacity;
+        this.duration = duration;
+    }
+
+    /**
+     * Create a window that contains the given number of most recent points
+     *
+     * @param capacity maximal number of points. Must be positive.
+     * @return new empty window
+     */
+    public static SlidingWindowConvexHull ofCount(final int capacity) {
+        checkArgument(capacity > 0, "The capacity must be positive");
+        return new SlidingWindowConvexHull(capacity, Long.MAX_VALUE);
+    }
+
+    /**
+     * Create a window that contains the points of the given period of time. A point with timestamp t expires as soon
+     * as the current time reaches t + duration. The unit of time is defined by the timestamps passed to
+     * {@link #add(Point, long)} and {@link #advance(long)}.
+     *
+     * @param duration length of the period. Must be positive.
+     * @return new empty window
+     */
+    public static SlidingWindowConvexHull ofDuration(final long duration) {
+        checkArgument(duration > 0, "The duration must be positive");
+        return new SlidingWindowConvexHull(Integer.MAX_VALUE, duration);
+    }
+
+    /**
+     * Add a point at the current time, which is the most recent timestamp passed, or 0 if none was passed.
+     * The oldest point is expired if the window is full.
+     *
+     * @param point to add
+     */
+    public void add(final Point point) {
+        add(point, this.now);
+    }
+
+    /**
+     * Add a point with a timestamp, expiring the points that are too old or too many
+     *
+     * @param point     to add
+     * @param timestamp of the point. Must not be negative or smaller than the timestamps passed before.
+     */
+    public void add(final Point point, final long timestamp) {
+        checkNotNull(point, "point");
+        advance(timestamp);
+        this.entries.addLast(new Entry(point, timestamp));
+        if (this.occurrences.add(point) && this.occurrences.count(point) == 1) {
+            this.hull.insert(point);
+        }
+        while (this.entries.size() > this.capacity) {
+            expireOldest();
+        }
+    }
+
+    /**
+     * Advance the current time without adding a point, expiring the points that are too old
+     *
+     * @param timestamp current time. Must not be negative or smaller than the timestamps passed before.
+     */
+    public void advance(final long timestamp) {
+        checkArgument(timestamp >= this.now, "Timestamps must not be negative or decrease");
+        this.now = timestamp;
+        while (!this.entries.isEmpty() && timestamp - this.entries.peekFirst().timestamp >= this.duration) {
+            expireOldest();
+        }
+    }
+
+    /**
+     * Number of points in the window, counting points that were added more than once accordingly
+     *
+     * @return size
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Calculate the vertices of the hull of the points in the window, in the same order as
+     * {@link ConvexHull#getPoints()} of the distinct points, see {@link DynamicConvexHull#getPoints()}
+     *
+     * @return new list of the vertices, empty if the window is empty
+     */
+    public List<Point> getPoints() {
+        return this.hull.getPoints();
+    }
+
+    private void expireOldest() {
+        final Point point = this.entries.removeFirst().point;
+        this.occurrences.remove(point);
+        if (this.occurrences.count(point) == 0) {
+            this.hull.remove(point);
+        }
+    }
+
+    /**
+     * A point of the window and the time it was added at
+     */
+    private static final class Entry {
+
+        private final Point point;
+
+        private final long timestamp;
+
+        private Entry(final Point point, final long timestamp) {
+            this.point = point;
+            this.timestamp = timestamp;
+        }
+    }
+}
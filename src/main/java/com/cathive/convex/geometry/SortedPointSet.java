@@ -2,24 +2,65 @@ package com.cathive.convex.geometry;
 
 import java.util.*;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
  * Contains a sorted set of {@link Point}. The sorting order is determined by {@link Point}'s {@link Comparator}.
  * Cannot contain two points for which {@link Point#equals(Object)} is true.
+ * The points are held as packed primitive values, see {@link PointBuffer#pack(int, int)}.
+ * <p>
+ * Before sorting, points that cannot be part of the convex hull are culled using the heuristic of Akl and
+ * Toussaint: the extreme points in the directions of x, y, x+y and x-y span an octagon that is contained
+ * in the convex hull. All points strictly inside of the octagon are dropped, as they cannot be vertices of the hull.
  * @author Alexander Erben
  */
 final class SortedPointSet {
 
     /**
-     * The encapsulated data structure that holds the {@link Point} sorted by their {@link Comparator}
+     * Point sets smaller than this are not culled, as it would not pay off
+     */
+    private static final int MIN_CULLING_SIZE = 64;
+
+    /**
+     * Point sets of at least this size are sorted with {@link Arrays#parallelSort(long[], int, int)}.
+     * For smaller sets, splitting the work among threads costs more than it saves.
+     */
+    private static final int MIN_PARALLEL_SORT_SIZE = 1 << 16;
+
+    /**
+     * The encapsulated data structure that holds the packed points in ascending order.
+     * Only the first {@link #size} elements are valid.
      */
-    private final SortedSet<Point> sortedPoints;
+    private final long[] sortedPoints;
+
+    /**
+     * Number of distinct points in the set
+     */
+    private final int size;
+
+    /**
+     * Input points that were set aside without sorting because they cannot be vertices of the hull, see
+     * {@link #culled()}. They are the elements of the array from {@link #culledFrom} on.
+     */
+    private final long[] culledPoints;
+
+    /**
+     * Index of the first culled point in {@link #culledPoints}
+     */
+    private final int culledFrom;
 
     /**
      * Private constructor
-     * @param sortedPoints point set
+     * @param sortedPoints packed points in ascending order without duplicates
+     * @param size number of valid elements in the array
+     * @param culledPoints array that holds the culled points at its end
+     * @param culledFrom index of the first culled point
      */
-    private SortedPointSet(final SortedSet<Point> sortedPoints) {
+    private SortedPointSet(final long[] sortedPoints, final int size, final long[] culledPoints, final int culledFrom) {
         this.sortedPoints = sortedPoints;
+        this.size = size;
+        this.culledPoints = culledPoints;
+        this.culledFrom = culledFrom;
     }
 
     /**
@@ -28,50 +69,371 @@ final class SortedPointSet {
      * @return sorted point set.
      */
     public static SortedPointSet of(final List<Point> points) {
-        return new SortedPointSet(new TreeSet<>(points));
+        final long[] packed = PointBuffer.pack(points);
+        return sort(packed, packed.length);
+    }
+
+    /**
+     * Construct a new sorted point set from coordinate arrays. The i-th point of the set is made up of
+     * <code>xs[i]</code> and <code>ys[i]</code>. No {@link Point} objects are created.
+     * @param xs X values
+     * @param ys Y values
+     * @param n number of points to read from the arrays
+     * @return sorted point set.
+     */
+    static SortedPointSet of(final int[] xs, final int[] ys, final int n) {
+        return sort(PointBuffer.pack(xs, ys, n), n);
+    }
+
+    /**
+     * Construct a new sorted point set from packed points. The array is sorted in place and kept by the set,
+     * so it must not be modified afterwards.
+     * @param packed points in arbitrary order
+     * @param n number of valid elements in the array
+     * @return sorted point set.
+     */
+    static SortedPointSet of(final long[] packed, final int n) {
+        return sort(packed, n);
+    }
+
+    /**
+     * Construct a new sorted point set from the packed points in a buffer. The buffer is not modified.
+     * @param points packed points in arbitrary order
+     * @return sorted point set.
+     */
+    static SortedPointSet of(final PointBuffer points) {
+        final long[] packed = new long[points.size()];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = points.get(i);
+        }
+        return sort(packed, packed.length);
+    }
+
+    /**
+     * Construct a new sorted point set from points that cannot be culled, such as the vertices of a hull.
+     * The buffer is not modified.
+     * @param points packed points in arbitrary order, possibly containing duplicates
+     * @return sorted point set in which no point is culled.
+     */
+    static SortedPointSet ofUnculled(final PointBuffer points) {
+        final long[] packed = new long[points.size()];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = points.get(i);
+        }
+        Arrays.sort(packed);
+        return new SortedPointSet(packed, distinct(packed, packed.length), packed, packed.length);
+    }
+
+    /**
+     * Construct a new sorted point set from packed points that are already sorted. No point is culled.
+     * @param packed points in ascending order without duplicates. The array is kept and must not be modified.
+     * @return sorted point set.
+     */
+    static SortedPointSet ofSorted(final long[] packed) {
+        return new SortedPointSet(packed, packed.length, packed, packed.length);
+    }
+
+    /**
+     * Merge two arrays of packed points in ascending order in a single scan, so that the points are not sorted again
+     * @param a packed points in ascending order
+     * @param b packed points in ascending order
+     * @return new array of the points of both arrays in ascending order without duplicates
+     */
+    static long[] union(final long[] a, final long[] b) {
+        final long[] packed = new long[a.length + b.length];
+        int size = 0;
+        int i = 0, j = 0;
+        while (i < a.length || j < b.length) {
+            final long next = j == b.length || i < a.length && a[i] <= b[j] ? a[i++] : b[j++];
+            if (size == 0 || packed[size - 1] != next) {
+                packed[size++] = next;
+            }
+        }
+        return size == packed.length ? packed : Arrays.copyOf(packed, size);
+    }
+
+    /**
+     * Read a set written by {@link #encode(HullCodec.Writer)}
+     * @param in to read from
+     * @return sorted point set.
+     */
+    static SortedPointSet decode(final HullCodec.Reader in) {
+        final long[] sorted = in.readPoints();
+        for (int i = 1; i < sorted.length; i++) {
+            checkArgument(sorted[i - 1] < sorted[i], "The encoded points are not sorted");
+        }
+        return new SortedPointSet(sorted, sorted.length, in.readPoints(), 0);
+    }
+
+    /**
+     * Write the sorted points followed by the culled points, see {@link HullCodec}
+     * @param out to write to
+     */
+    void encode(final HullCodec.Writer out) {
+        out.writePoints(this.sortedPoints, 0, this.size);
+        out.writePoints(this.culledPoints, this.culledFrom, this.culledPoints.length);
+    }
+
+    /**
+     * Cull the interior points, then sort the remaining packed points in place and remove duplicates
+     * with a single scan
+     * @param packed points
+     * @param n number of valid elements
+     * @return sorted point set backed by the passed array
+     */
+    private static SortedPointSet sort(final long[] packed, final int n) {
+        final int remaining = n < MIN_CULLING_SIZE ? n : cull(packed, n);
+        sort(packed, 0, remaining);
+        final int size = distinct(packed, remaining);
+        if (size < 4 && remaining < n) {
+            // the hull of less than 4 points is ordered differently, so the culled points are kept as long as
+            // there are not 4 distinct points without them
+            System.arraycopy(packed, remaining, packed, size, n - remaining);
+            sort(packed, 0, size + n - remaining);
+            return new SortedPointSet(packed, distinct(packed, size + n - remaining), packed, packed.length);
+        }
+        return new SortedPointSet(packed, size, packed, remaining);
+    }
+
+    /**
+     * Sort a range of packed points, in parallel if it is large
+     * @param packed points
+     * @param from index of the first point
+     * @param to index after the last point
+     */
+    private static void sort(final long[] packed, final int from, final int to) {
+        if (to - from < MIN_PARALLEL_SORT_SIZE) {
+            Arrays.sort(packed, from, to);
+        } else {
+            Arrays.parallelSort(packed, from, to);
+        }
+    }
+
+    /**
+     * Remove duplicates from sorted packed points in place with a single scan
+     * @param packed points in ascending order
+     * @param n number of valid elements
+     * @return number of distinct points, which are moved to the front of the array
+     */
+    private static int distinct(final long[] packed, final int n) {
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || packed[distinct - 1] != packed[i]) {
+                packed[distinct++] = packed[i];
+            }
+        }
+        return distinct;
     }
 
     /**
-     * Apply all points in this set to a {@link SweepLine} by calling {@link SweepLine#discover(Point)} on all points
+     * Sort packed points and remove duplicates. Points are not culled.
+     * @param points to sort
+     * @return new array of the distinct points in ascending order
+     */
+    static long[] sortedDistinct(final Collection<Point> points) {
+        final long[] packed = PointBuffer.pack(points);
+        Arrays.sort(packed);
+        return Arrays.copyOf(packed, distinct(packed, packed.length));
+    }
+
+    /**
+     * Drop all points that are strictly inside of the octagon spanned by the extreme points in the directions
+     * of x, y, x+y and x-y. The remaining points are moved to the front of the array, the dropped points
+     * to its end.
+     * @param packed points. Must contain at least one point.
+     * @param n number of valid elements
+     * @return number of remaining points
+     */
+    static int cull(final long[] packed, final int n) {
+        // extreme points in counter-clockwise order, starting with the one with the greatest x value
+        final long[] octagon = new long[8];
+        Arrays.fill(octagon, packed[0]);
+        for (int i = 1; i < n; i++) {
+            final long p = packed[i];
+            final long x = PointBuffer.x(p);
+            final long y = PointBuffer.y(p);
+            if (x > PointBuffer.x(octagon[0])) octagon[0] = p;
+            if (x + y > sum(octagon[1])) octagon[1] = p;
+            if (y > PointBuffer.y(octagon[2])) octagon[2] = p;
+            if (y - x > -difference(octagon[3])) octagon[3] = p;
+            if (x < PointBuffer.x(octagon[4])) octagon[4] = p;
+            if (x + y < sum(octagon[5])) octagon[5] = p;
+            if (y < PointBuffer.y(octagon[6])) octagon[6] = p;
+            if (x - y > difference(octagon[7])) octagon[7] = p;
+        }
+        // the edges of the octagon, without the degenerate ones of length zero
+        final long[] from = new long[8];
+        final long[] to = new long[8];
+        int edges = 0;
+        for (int i = 0; i < 8; i++) {
+            final long a = octagon[i];
+            final long b = octagon[(i + 1) % 8];
+            if (a != b) {
+                from[edges] = a;
+                to[edges] = b;
+                edges++;
+            }
+        }
+        if (edges < 3) {
+            return n;
+        }
+        int remaining = 0;
+        for (int i = 0; i < n; i++) {
+            final long p = packed[i];
+            if (!strictlyInside(p, from, to, edges)) {
+                packed[i] = packed[remaining];
+                packed[remaining++] = p;
+            }
+        }
+        return remaining;
+    }
+
+    private static boolean strictlyInside(final long p, final long[] from, final long[] to, final int edges) {
+        for (int i = 0; i < edges; i++) {
+            if (Determinant.ofPacked(from[i], to[i], p) <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long sum(final long p) {
+        return (long) PointBuffer.x(p) + PointBuffer.y(p);
+    }
+
+    private static long difference(final long p) {
+        return (long) PointBuffer.x(p) - PointBuffer.y(p);
+    }
+
+    /**
+     * Apply all points in this set to a {@link SweepLine} by calling {@link SweepLine#discover(long)} on all points
      * according to the application order determined by the passed order parameter.
      * @param line to show the points
      * @param order to apply, which may be left-to-right or right-to-left
      * @return line after application
      */
     public SweepLine apply(final SweepLine line, final ApplicationOrder order) {
-        order.apply(this.sortedPoints, line);
+        order.apply(this.sortedPoints, this.size, line);
         return line;
     }
 
     int size() {
-        return this.sortedPoints.size();
+        return this.size;
+    }
+
+    /**
+     * Number of input points that were set aside before sorting because they cannot be vertices of the hull,
+     * for instance because they are strictly inside of it. They may contain duplicates and points of the set.
+     * @return number of culled points
+     */
+    int culled() {
+        return this.culledPoints.length - this.culledFrom;
+    }
+
+    /**
+     * Check if a point is contained in the sorted points. Culled points are not regarded.
+     * @param point packed point
+     * @return true if contained
+     */
+    boolean contains(final long point) {
+        return Arrays.binarySearch(this.sortedPoints, 0, this.size, point) >= 0;
+    }
+
+    /**
+     * Return a set that contains the culled points as sorted points, so that no point is culled.
+     * @return new set, or this set if no point is culled
+     */
+    SortedPointSet withCulledPoints() {
+        if (culled() == 0) {
+            return this;
+        }
+        final long[] packed = Arrays.copyOf(this.sortedPoints, this.size + culled());
+        System.arraycopy(this.culledPoints, this.culledFrom, packed, this.size, culled());
+        Arrays.sort(packed);
+        return new SortedPointSet(packed, distinct(packed, packed.length), packed, packed.length);
+    }
+
+    /**
+     * Return a set in which points are added and removed. Both arrays are merged with the sorted points
+     * in a single scan, so that the points are not sorted again. Culled points are kept.
+     * @param added packed points to add in ascending order without duplicates
+     * @param removed packed points to remove in ascending order without duplicates. Points that are contained
+     *                in both arrays are removed. Must be empty if points are culled.
+     * @return new set, or this set if no point was added or removed
+     */
+    SortedPointSet update(final long[] added, final long[] removed) {
+        checkArgument(removed.length == 0 || culled() == 0, "Culled points must be sorted before removal");
+        final long[] packed = new long[this.size + added.length];
+        int size = 0;
+        boolean changed = false;
+        int i = 0, a = 0, r = 0;
+        while (i < this.size || a < added.length) {
+            final long next;
+            final boolean contained;
+            if (a == added.length || i < this.size && this.sortedPoints[i] <= added[a]) {
+                next = this.sortedPoints[i++];
+                contained = true;
+                if (a < added.length && added[a] == next) {
+                    a++;
+                }
+            } else {
+                next = added[a++];
+                contained = false;
+            }
+            while (r < removed.length && removed[r] < next) {
+                r++;
+            }
+            final boolean remove = r < removed.length && removed[r] == next;
+            if (!remove) {
+                packed[size++] = next;
+            }
+            changed |= remove == contained;
+        }
+        if (!changed) {
+            return this;
+        }
+        return new SortedPointSet(packed, size, this.culledPoints, this.culledFrom);
     }
 
     List<Point> asList() {
-        return new ArrayList<>(this.sortedPoints);
+        final List<Point> result = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            result.add(PointBuffer.toPoint(this.sortedPoints[i]));
+        }
+        return result;
+    }
+
+    PointBuffer asBuffer() {
+        final PointBuffer result = new PointBuffer(this.size);
+        for (int i = 0; i < this.size; i++) {
+            result.add(this.sortedPoints[i]);
+        }
+        return result;
     }
 
     /**
      * There may be two orders of application of {@link Point}s to {@link SweepLine}s: left-to-right and right-to-left.
-     * The former calls {@link SweepLine#discover(Point)} on the points in ascending order with regard to their
+     * The former calls {@link SweepLine#discover(long)} on the points in ascending order with regard to their
      * {@link Comparator}, the latter in inverse order.
      */
     enum ApplicationOrder {
         LEFT_TO_RIGHT {
             @Override
-            void apply(final SortedSet<Point> sortedPoints, final SweepLine line) {
-                sortedPoints.forEach(line::discover);
+            void apply(final long[] sortedPoints, final int size, final SweepLine line) {
+                for (int i = 0; i < size; i++) {
+                    line.discover(sortedPoints[i]);
+                }
             }
         },
         RIGHT_TO_LEFT {
             @Override
-            void apply(final SortedSet<Point> sortedPoints, final SweepLine line) {
-                final List<Point> reversed = new ArrayList<>(sortedPoints);
-                Collections.reverse(reversed);
-                reversed.forEach(line::discover);
+            void apply(final long[] sortedPoints, final int size, final SweepLine line) {
+                for (int i = size - 1; i >= 0; i--) {
+                    line.discover(sortedPoints[i]);
+                }
             }
         };
 
-        abstract void apply(final SortedSet<Point> sortedPoints, final SweepLine line);
+        abstract void apply(final long[] sortedPoints, final int size, final SweepLine line);
     }
 }
@@ -0,0 +1,167 @@
+package com.cathive.convex.geometry;
+
+import java.util.List;
+
+/**
+ * Approximation of the convex hull in linear time as described by Bentley, Faust and Preparata. The range of the
+ * X values is split into vertical strips of width epsilon. Of each strip, only the points with the smallest and the
+ * greatest Y value are kept, together with the points with the smallest and greatest Y value of the smallest and
+ * greatest X value. The hull of the kept points is the approximation. It takes linear time if there are not more
+ * strips than points.
+ * <p>
+ * Every point lies in a strip between the two kept points of the strip, so it is closer than epsilon to the line
+ * between them, which is contained in the approximation. So every point, and especially every vertex of the exact
+ * hull, is closer than epsilon to the approximation.
+ *
+ * @author Alexander Erben
+ */
+final class StripHull {
+
+    /**
+     * Smallest X value
+     */
+    private final int minX;
+
+    /**
+     * Width of a strip
+     */
+    private final double epsilon;
+
+    /**
+     * Points with the smallest and greatest Y value per strip
+     */
+    private final long[] lowest, highest;
+
+    /**
+     * Whether a strip contains any point
+     */
+    private final boolean[] occupied;
+
+    /**
+     * Greatest X value
+     */
+    private final int maxX;
+
+    /**
+     * Points with the smallest and the greatest Y value of the smallest X value
+     */
+    private long leftmostLowest = Long.MAX_VALUE, leftmostHighest = Long.MIN_VALUE;
+
+    /**
+     * Points with the smallest and the greatest Y value of the greatest X value
+     */
+    private long rightmostLowest = Long.MAX_VALUE, rightmostHighest = Long.MIN_VALUE;
+
+    private StripHull(final int minX, final int maxX, final int strips, final double epsilon) {
+        this.minX = minX;
+        this.maxX = maxX;
+        this.epsilon = epsilon;
+        this.lowest = new long[strips];
+        this.highest = new long[strips];
+        this.occupied = new boolean[strips];
+    }
+
+    /**
+     * Select the points the approximation of the hull of a point set is calculated from
+     *
+     * @param points  to approximate the hull of. Must not be empty.
+     * @param epsilon width of the strips. Must be positive.
+     * @return packed points whose hull is the approximation, or <code>null</code> if there would be more strips
+     * than points, which means that the approximation does not pay off
+     */
+    static PointBuffer candidates(final List<Point> points, final double epsilon) {
+        int minX = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        for (final Point point : points) {
+            minX = Math.min(minX, point.getX());
+            maxX = Math.max(maxX, point.getX());
+        }
+        final StripHull strips = create(minX, maxX, points.size(), epsilon);
+        if (strips == null) {
+            return null;
+        }
+        for (final Point point : points) {
+            strips.accept(PointBuffer.pack(point));
+        }
+        return strips.candidates();
+    }
+
+    /**
+     * Select the points the approximation of the hull of a point set given by coordinate arrays is calculated from.
+     * See {@link #candidates(List, double)}.
+     *
+     * @param xs      X values
+     * @param ys      Y values
+     * @param n       number of points to read from the arrays. Must be positive.
+     * @param epsilon width of the strips. Must be positive.
+     * @return packed points whose hull is the approximation, or <code>null</code> if it does not pay off
+     */
+    static PointBuffer candidates(final int[] xs, final int[] ys, final int n, final double epsilon) {
+        int minX = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+        }
+        final StripHull strips = create(minX, maxX, n, epsilon);
+        if (strips == null) {
+            return null;
+        }
+        for (int i = 0; i < n; i++) {
+            strips.accept(PointBuffer.pack(xs[i], ys[i]));
+        }
+        return strips.candidates();
+    }
+
+    private static StripHull create(final int minX, final int maxX, final int n, final double epsilon) {
+        final double strips = Math.floor(((long) maxX - minX) / epsilon) + 1;
+        if (strips > n) {
+            return null;
+        }
+        return new StripHull(minX, maxX, (int) strips, epsilon);
+    }
+
+    private void accept(final long point) {
+        final int strip = Math.min((int) ((PointBuffer.x(point) - (long) this.minX) / this.epsilon),
+                this.occupied.length - 1);
+        if (PointBuffer.x(point) == this.minX) {
+            this.leftmostLowest = Math.min(this.leftmostLowest, point);
+            this.leftmostHighest = Math.max(this.leftmostHighest, point);
+        }
+        if (PointBuffer.x(point) == this.maxX) {
+            this.rightmostLowest = Math.min(this.rightmostLowest, point);
+            this.rightmostHighest = Math.max(this.rightmostHighest, point);
+        }
+        if (!this.occupied[strip]) {
+            this.occupied[strip] = true;
+            this.lowest[strip] = point;
+            this.highest[strip] = point;
+        } else {
+            if (PointBuffer.y(point) < PointBuffer.y(this.lowest[strip])) {
+                this.lowest[strip] = point;
+            }
+            if (PointBuffer.y(point) > PointBuffer.y(this.highest[strip])) {
+                this.highest[strip] = point;
+            }
+        }
+    }
+
+    /**
+     * Collect the kept points of all strips and the extreme points of the smallest and greatest X value,
+     * which are exact vertices of the hull
+     */
+    private PointBuffer candidates() {
+        final PointBuffer candidates = new PointBuffer(2 * this.occupied.length + 4);
+        for (int strip = 0; strip < this.occupied.length; strip++) {
+            if (this.occupied[strip]) {
+                candidates.add(this.lowest[strip]);
+                candidates.add(this.highest[strip]);
+            }
+        }
+        candidates.add(this.leftmostLowest);
+        candidates.add(this.leftmostHighest);
+        candidates.add(this.rightmostLowest);
+        candidates.add(this.rightmostHighest);
+        return candidates;
+    }
+}
@@ -1,7 +1,5 @@
 package com.cathive.convex.geometry;
 
-import java.util.*;
-
 /**
  * Part of the algorithm that calculates the {@link Outline} from a {@link SortedPointSet}.
  * Implemented using a visitor pattern where all points of the set are discovered in order.
@@ -27,32 +25,33 @@ final class SweepLine {
     /**
      * The upper half of the discovered points. Initial element included.
      */
-    private final List<Point> upper = new ArrayList<>();
+    private final PointBuffer upper = new PointBuffer();
 
     /**
      * The lower half of the discovered points. Initial element included.
      */
-    private final List<Point> lower = new ArrayList<>();
+    private final PointBuffer lower = new PointBuffer();
 
     /**
      * Discover a point. Update the internal state of this line. If it is the initial point, it is added to the points deque.
      * If the point is greater than yMax, the point will
      * be the new yMax and added to the back of the deque. If it is lower than yMin, it is the new yMin and added to
      * the front of the deque.
-     * @param point to discover
+     * @param point to discover, packed as described in {@link PointBuffer#pack(int, int)}
      */
-    void discover(final Point point) {
+    void discover(final long point) {
+        final int y = PointBuffer.y(point);
         if (this.initial) {
             this.initial = false;
-            this.minYSoFar = point.getY();
-            this.maxYSoFar = point.getY();
+            this.minYSoFar = y;
+            this.maxYSoFar = y;
             this.upper.add(point);
             this.lower.add(point);
-        } else if (point.getY() > this.maxYSoFar) {
-            this.maxYSoFar = point.getY();
+        } else if (y > this.maxYSoFar) {
+            this.maxYSoFar = y;
             this.upper.add(point);
-        } else if (point.getY() < this.minYSoFar) {
-            this.minYSoFar = point.getY();
+        } else if (y < this.minYSoFar) {
+            this.minYSoFar = y;
             this.lower.add(point);
         }
     }
@@ -61,7 +60,7 @@ final class SweepLine {
      * Return the upper part of the discovered points. The first discovered point is included.
      * @return upper half
      */
-    List<Point> upper() {
+    PointBuffer upper() {
         return this.upper;
     }
 
@@ -69,7 +68,7 @@ final class SweepLine {
      * Return the lower part of the discovered points. The first discovered point is included.
      * @return lower half
      */
-    List<Point> lower(){
+    PointBuffer lower(){
         return this.lower;
     }
 
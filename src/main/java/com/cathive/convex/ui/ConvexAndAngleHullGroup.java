@@ -2,11 +2,12 @@ package com.cathive.convex.ui;
 
 import com.cathive.convex.geometry.Angle;
 import com.cathive.convex.geometry.AngleHull;
+import com.cathive.convex.geometry.AngleHullCache;
 import com.cathive.convex.geometry.Point;
 import com.cathive.convex.geometry.ConvexHull;
 import com.google.common.collect.ImmutableList;
+import javafx.beans.property.BooleanProperty;
 import javafx.scene.Group;
-import javafx.scene.paint.Color;
 import javafx.scene.shape.Arc;
 import javafx.scene.shape.Polygon;
 import javafx.scene.shape.StrokeType;
@@ -14,8 +15,8 @@ import javafx.scene.shape.StrokeType;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
 import static javafx.scene.paint.Color.*;
@@ -32,9 +33,15 @@ import static javafx.scene.shape.ArcType.OPEN;
 final class ConvexAndAngleHullGroup extends Group {
 
     /**
-     * The factory for creating {@link AngleHull}s
+     * Number of arcs of the cached {@link AngleHull}s, about 250 bytes each
      */
-    private static final AngleHull.Factory HULL_FACTORY = AngleHull.Factory.get();
+    private static final long MAXIMUM_CACHED_ARCS = 100_000;
+
+    /**
+     * Caches the {@link AngleHull}s, so that rendering an unchanged or earlier hull again,
+     * e.g. after a settings change or an undo, does not generate them again
+     */
+    private static final AngleHullCache HULL_CACHE = new AngleHullCache(MAXIMUM_CACHED_ARCS);
 
     /**
      * Holds the polygon displaying the {@link ConvexHull}
@@ -60,22 +67,32 @@ final class ConvexAndAngleHullGroup extends Group {
     /**
      * Creates a function that transforms a center point, radius, start and extent angle to a renderable jfx arc.
      */
-    private AngleHull.ArcCollector<Arc> createArcCollector(Use use) {
-        return (Point z, double r, Angle beta, Angle rho) -> {
-            final Arc jfxArc = new Arc();
-            jfxArc.setCenterX(z.getX());
-            jfxArc.setCenterY(z.getY());
-            jfxArc.setRadiusX(r - use.radiusOffset());
-            jfxArc.setRadiusY(r - use.radiusOffset());
-            jfxArc.setStartAngle(-rho.deg());
-            jfxArc.setLength(-beta.deg());
-            jfxArc.setType(OPEN);
-            jfxArc.setStrokeType(StrokeType.CENTERED);
-            jfxArc.setStroke(use.stroke());
-            jfxArc.setFill(use.fill());
-            jfxArc.setStrokeWidth(use.strokeWidth());
-            return jfxArc;
-        };
+    private AngleHull.ArcCollector<Arc> createArcCollector() {
+        return (Point z, double r, Angle beta, Angle rho) -> createArc(z.getX(), z.getY(), r, beta, rho);
+    }
+
+    /**
+     * Creates a function that transforms an exact center point, radius, start and extent angle to a renderable
+     * jfx arc.
+     */
+    private AngleHull.PreciseArcCollector<Arc> createPreciseArcCollector() {
+        return this::createArc;
+    }
+
+    private Arc createArc(final double zx, final double zy, final double r, final Angle beta, final Angle rho) {
+        final Arc jfxArc = new Arc();
+        jfxArc.setCenterX(zx);
+        jfxArc.setCenterY(zy);
+        jfxArc.setRadiusX(r);
+        jfxArc.setRadiusY(r);
+        jfxArc.setStartAngle(-rho.deg());
+        jfxArc.setLength(-beta.deg());
+        jfxArc.setType(OPEN);
+        jfxArc.setStrokeType(StrokeType.CENTERED);
+        jfxArc.setStroke(RED);
+        jfxArc.setFill(TRANSPARENT);
+        jfxArc.setStrokeWidth(2);
+        return jfxArc;
     }
 
 
@@ -122,19 +139,16 @@ final class ConvexAndAngleHullGroup extends Group {
 
     /**
      * Render all configured angle hulls.
-     * Two scenarios exist: precise and unprecise rendering.
+     * Two scenarios exist: precise and unprecise rendering. Both render the cut arcs of {@link AngleHull}
+     * in one pass.
      *
      * Precise rendering
-     * As the cutting algorithm in {@link AngleHull} is not 100% precise, we use a trick to render the
-     * cleanly cut arcs. For each configured angle, we perform two passes. In the first pass, only the strokes
-     * are rendered, causing the arcs two overlap. Afterwards, in the second pass, the same arcs are redrawed
-     * upon the strokes with white fill. This causes the overlapping sections to vanish.
-     * The resulting rendering is clean, but takes more time than the unprecise rendering with pre-cut arcs.
+     * The arcs are rendered around their exact centers. As the cut arcs end exactly where the next ones
+     * start, the resulting rendering is clean.
      *
      * Unprecise rendering
-     * The cutting algorithm of {@link AngleHull} is used to create almost-non-overlapping arcs that can be
-     * displayed in one rendering pass, in contrast to precise mode. This mode is more than twice as fast,
-     * but the resulting structures contain small overlapping sections.
+     * The centers of the arcs are rounded to the nearest pixel, so the resulting structures contain small
+     * overlapping sections and gaps.
      *
      * @param hull used to derive the angle hulls
      */
@@ -143,30 +157,36 @@ final class ConvexAndAngleHullGroup extends Group {
             final boolean preciseMode = this.settings.preciseModeActiveProperty().get();
             final List<Arc> arcs;
             if(preciseMode){
-                arcs = this.settings.getDrawnAnglesPrecise().entrySet().stream()
-                        .filter(entry -> entry.getValue().get())
-                        .map(Map.Entry::getKey)
-                        .sorted()
-                        .map(deg -> HULL_FACTORY.generateAngleHull(hull, Angle.fromDeg(deg)))
-                        .flatMap(ah -> {
-                            final Stream<Arc> strokes = ah.mapWith(createArcCollector(Use.STROKE), AngleHull.CuttingStrategy.UNCUT);
-                            final Stream<Arc> overlays = ah.mapWith(createArcCollector(Use.OVERLAY), AngleHull.CuttingStrategy.UNCUT);
-                            return Stream.concat(strokes, overlays);
-                        })
+                arcs = generateAngleHulls(hull, this.settings.getDrawnAnglesPrecise()).stream()
+                        .flatMap(angleHull -> angleHull.mapWith(createPreciseArcCollector(), AngleHull.CuttingStrategy.CUT))
                         .collect(toList());
             } else {
-                arcs = this.settings.getDrawnAnglesImprecise().entrySet().stream()
-                        .filter(entry -> entry.getValue().get())
-                        .map(Map.Entry::getKey)
-                        .sorted()
-                        .map(deg -> HULL_FACTORY.generateAngleHull(hull, Angle.fromDeg(deg)))
-                        .flatMap(angleHull -> angleHull.mapWith(createArcCollector(Use.STROKE), AngleHull.CuttingStrategy.CUT))
+                arcs = generateAngleHulls(hull, this.settings.getDrawnAnglesImprecise()).stream()
+                        .flatMap(angleHull -> angleHull.mapWith(createArcCollector(), AngleHull.CuttingStrategy.CUT))
                         .collect(toList());
             }
             this.arcGroup.getChildren().addAll(arcs);
         }
     }
 
+    /**
+     * Generate the angle hulls of all enabled angles in one pass over the hull, or take them from the cache.
+     * The walks for the different angles run in parallel.
+     *
+     * @param hull   used to derive the angle hulls
+     * @param angles degrees of the angles, mapped to whether they are enabled
+     * @return angle hulls in the ascending order of their angles
+     */
+    private List<AngleHull> generateAngleHulls(final ConvexHull hull, final Map<Integer, BooleanProperty> angles) {
+        final Angle[] enabled = angles.entrySet().stream()
+                .filter(entry -> entry.getValue().get())
+                .map(Map.Entry::getKey)
+                .sorted()
+                .map(Angle::fromDeg)
+                .toArray(Angle[]::new);
+        return HULL_CACHE.getAll(hull, ForkJoinPool.commonPool(), enabled);
+    }
+
     /**
      * Apply the application wide settings instance. A listener is registered
      * that causes the angle hull to be rerendered when settings change.
@@ -181,83 +201,4 @@ final class ConvexAndAngleHullGroup extends Group {
             drawAngleHulls(hull);
         });
     }
-
-    /**
-     * Determines if a rendered arc is used as overlay or stroke unit.
-     */
-    private enum Use {
-        /**
-         * The arc is used as an overlay to hide overlapping arcs
-         */
-        OVERLAY {
-            @Override
-            Color fill() {
-                return WHITE;
-            }
-
-            @Override
-            Color stroke() {
-                return TRANSPARENT;
-            }
-
-            @Override
-            int radiusOffset() {
-                return 1;
-            }
-
-            @Override
-            int strokeWidth() {
-                return 0;
-            }
-        },
-        /**
-         * The arc is used to actually stroke the hull
-         */
-        STROKE {
-            @Override
-            Color fill() {
-                return TRANSPARENT;
-            }
-
-            @Override
-            Color stroke() {
-                return RED;
-            }
-
-            @Override
-            int radiusOffset() {
-                return 0;
-            }
-
-            @Override
-            int strokeWidth() {
-                return 2;
-            }
-        };
-
-        /**
-         * Fill color for the arc
-         * @return fill color
-         */
-        abstract Color fill();
-
-        /**
-         * Stroke color of the arc
-         * @return stroke color
-         */
-        abstract Color stroke();
-
-        /**
-         * Amount to reduce the radius. This property is used
-         * to prevent the fill from overlapping the stroke of the underlying arc
-         * @return offset
-         */
-        abstract int radiusOffset();
-
-        /**
-         * Stroke width of the arc
-         * @return stroke width
-         */
-        abstract int strokeWidth();
-    }
 }
@@ -0,0 +1,155 @@
+package com.cathive.convex.geometry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class AngleHullTest {
+
+    @Test
+    public void testGenerateAngleHulls() {
+        Random random = new Random(43);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            double angle = random.nextDouble() * 2 * Math.PI;
+            points.add(Point.of((int) (Math.cos(angle) * 10000), (int) (Math.sin(angle) * 10000)));
+        }
+        ConvexHull hull = ConvexHull.setup(points);
+        Angle[] alphas = {Angle.fromDeg(30), Angle.fromDeg(60), Angle.fromDeg(90), Angle.fromDeg(150)};
+        AngleHull.Factory factory = AngleHull.Factory.get();
+        List<AngleHull> hulls = factory.generateAngleHulls(hull, alphas);
+        List<AngleHull> parallel = factory.generateAngleHulls(hull, ForkJoinPool.commonPool(), alphas);
+        assertEquals(alphas.length, hulls.size());
+        for (int i = 0; i < alphas.length; i++) {
+            AngleHull single = factory.generateAngleHull(hull, alphas[i]);
+            for (AngleHull.CuttingStrategy strategy : AngleHull.CuttingStrategy.values()) {
+                assertArcsEqual(arcs(single, strategy), arcs(hulls.get(i), strategy), 0);
+                assertArcsEqual(arcs(single, strategy), arcs(parallel.get(i), strategy), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testCutArcsMeet() {
+        ConvexHull hull = ConvexHull.setup(randomPoints(new Random(47), 200));
+        for (int deg = 10; deg < 180; deg += 20) {
+            List<double[]> arcs = arcs(AngleHull.Factory.get().generateAngleHull(hull, Angle.fromDeg(deg)),
+                    AngleHull.CuttingStrategy.CUT);
+            for (int i = 0; i < arcs.size(); i++) {
+                double[] arc = arcs.get(i);
+                double[] next = arcs.get((i + 1) % arcs.size());
+                double end = arc[3] + arc[4];
+                assertEquals(arc[0] + arc[2] * Math.cos(end), next[0] + next[2] * Math.cos(next[3]), 1e-6);
+                assertEquals(arc[1] + arc[2] * Math.sin(end), next[1] + next[2] * Math.sin(next[3]), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testCache() {
+        ConvexHull square = ConvexHull.setup(Arrays.asList(
+                Point.of(0, 0), Point.of(0, 100), Point.of(100, 100), Point.of(100, 0), Point.of(50, 50)));
+        ConvexHull sameSquare = ConvexHull.setup(Arrays.asList(
+                Point.of(100, 0), Point.of(0, 0), Point.of(100, 100), Point.of(0, 100)));
+        ConvexHull triangle = ConvexHull.setup(Arrays.asList(
+                Point.of(0, 0), Point.of(0, 100), Point.of(100, 0), Point.of(10, 10)));
+        AngleHullCache cache = new AngleHullCache(1000);
+        AngleHull hull = cache.get(square, Angle.fromDeg(60));
+        assertSame(hull, cache.get(sameSquare, Angle.fromDeg(60)));
+        assertNotSame(hull, cache.get(square, Angle.fromDeg(90)));
+        List<AngleHull> all = cache.getAll(square, ForkJoinPool.commonPool(),
+                Angle.fromDeg(30), Angle.fromDeg(60), Angle.fromDeg(90));
+        assertSame(hull, all.get(1));
+        assertArcsEqual(arcs(AngleHull.Factory.get().generateAngleHull(square, Angle.fromDeg(30)),
+                AngleHull.CuttingStrategy.CUT), arcs(all.get(0), AngleHull.CuttingStrategy.CUT), 0);
+        cache.get(triangle, Angle.fromDeg(60));
+        assertEquals(3, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+        assertEquals(4, cache.size());
+
+        AngleHullCache small = new AngleHullCache(hull.size());
+        small.get(square, Angle.fromDeg(60));
+        small.get(triangle, Angle.fromDeg(60));
+        assertEquals(1, small.size());
+        assertNotSame(hull, small.get(square, Angle.fromDeg(60)));
+        assertEquals(0, small.getHitCount());
+    }
+
+    @Test
+    public void testUpdate() {
+        Random random = new Random(13);
+        List<Point> points = randomPoints(random, 300);
+        AngleHull angleHull = AngleHull.Factory.get().generateAngleHull(ConvexHull.setup(points), Angle.fromDeg(70));
+        for (int i = 0; i < 20; i++) {
+            if (random.nextBoolean()) {
+                points.remove(random.nextInt(points.size()));
+            } else {
+                points.add(Point.of(random.nextInt(1100) - 50, random.nextInt(1100) - 50));
+            }
+            ConvexHull hull = ConvexHull.setup(points);
+            AngleHull expected = AngleHull.Factory.get().generateAngleHull(hull, Angle.fromDeg(70));
+            angleHull = angleHull.update(hull);
+            for (AngleHull.CuttingStrategy strategy : AngleHull.CuttingStrategy.values()) {
+                assertArcsEqual(arcs(expected, strategy), arcs(angleHull, strategy), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testParametric() {
+        Random random = new Random(29);
+        ConvexHull hull = ConvexHull.setup(randomPoints(random, 300));
+        AngleHull.Parametric parametric = AngleHull.Factory.get().parametrize(hull);
+        for (int i = 0; i < 50; i++) {
+            Angle alpha = Angle.fromRad(0.01 + random.nextDouble() * (Math.PI - 0.02));
+            assertArcsEqual(arcs(AngleHull.Factory.get().generateAngleHull(hull, alpha), AngleHull.CuttingStrategy.CUT),
+                    arcs(parametric.generateAngleHull(alpha), AngleHull.CuttingStrategy.CUT), 1e-9);
+        }
+    }
+
+    @Test
+    public void testParametricOnGridAtWholeDegrees() {
+        ConvexHull hull = ConvexHull.setup(Arrays.asList(Point.of(0, 820), Point.of(246, 902), Point.of(820, 902),
+                Point.of(902, 820), Point.of(902, 0), Point.of(246, 82), Point.of(82, 410), Point.of(410, 410)));
+        AngleHull.Parametric parametric = AngleHull.Factory.get().parametrize(hull);
+        for (int deg = 1; deg < 180; deg++) {
+            assertArcsEqual(arcs(AngleHull.Factory.get().generateAngleHull(hull, Angle.fromDeg(deg)),
+                    AngleHull.CuttingStrategy.CUT), arcs(parametric.generateAngleHull(Angle.fromDeg(deg)),
+                    AngleHull.CuttingStrategy.CUT), 0);
+        }
+    }
+
+    private static List<Point> randomPoints(Random random, int n) {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            points.add(Point.of(random.nextInt(1000), random.nextInt(1000)));
+        }
+        return points;
+    }
+
+    /**
+     * Flatten the arcs of a hull to arrays of the center, the radius, the start and the extent angle
+     */
+    private static List<double[]> arcs(AngleHull hull, AngleHull.CuttingStrategy strategy) {
+        return hull.mapWith((double zx, double zy, double r, Angle beta, Angle rho) ->
+                new double[]{zx, zy, r, rho.rad(), beta.rad()}, strategy)
+                .collect(Collectors.toList());
+    }
+
+    private static void assertArcsEqual(List<double[]> expected, List<double[]> actual, double delta) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), delta);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.cathive.convex.geometry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConvexHullIndexTest {
+
+    @Test
+    public void testQueriesEqualLinearScan() {
+        Random random = new Random(31);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            points.add(Point.of(random.nextInt(1000), random.nextInt(1000)));
+        }
+        ConvexHullIndex index = ConvexHullIndex.of(ConvexHull.setup(points));
+        List<Point> vertices = index.getPoints();
+        int n = 10000;
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextInt(1200) - 100;
+            ys[i] = random.nextInt(1200) - 100;
+        }
+        boolean[] contained = index.contains(xs, ys, n);
+        for (int i = 0; i < n; i++) {
+            boolean expected = true;
+            for (int j = 0; j < vertices.size(); j++) {
+                Point a = vertices.get(j);
+                Point b = vertices.get((j + 1) % vertices.size());
+                expected &= Determinant.of(a.getX(), a.getY(), b.getX(), b.getY(), xs[i], ys[i]) <= 0;
+            }
+            assertEquals(expected, contained[i]);
+        }
+        for (int i = 0; i < 100; i++) {
+            double dx = random.nextGaussian();
+            double dy = random.nextGaussian();
+            Point expected = Collections.max(vertices, (a, b) ->
+                    Double.compare(dx * a.getX() + dy * a.getY(), dx * b.getX() + dy * b.getY()));
+            assertEquals(expected, index.extreme(dx, dy));
+        }
+    }
+
+    @Test
+    public void testTangents() {
+        ConvexHullIndex index = ConvexHullIndex.of(ConvexHull.setup(Arrays.asList(
+                Point.of(0, 0), Point.of(0, 10), Point.of(10, 10), Point.of(10, 0), Point.of(5, 5))));
+        assertEquals(Arrays.asList(Point.of(10, 10), Point.of(10, 0)), index.tangents(20, 5));
+        assertEquals(Arrays.asList(Point.of(0, 10), Point.of(10, 0)), index.tangents(20, 20));
+        assertEquals(Arrays.asList(Point.of(10, 10), Point.of(10, 0)), index.tangents(20, 10));
+        assertEquals(Collections.emptyList(), index.tangents(10, 5));
+        ConvexHullIndex line = ConvexHullIndex.of(ConvexHull.setup(Arrays.asList(
+                Point.of(0, 0), Point.of(2, 2), Point.of(1, 1))));
+        assertEquals(Arrays.asList(Point.of(0, 0), Point.of(2, 2)), line.getPoints());
+        assertEquals(Arrays.asList(Point.of(2, 2), Point.of(0, 0)), line.tangents(2, 0));
+    }
+}
@@ -0,0 +1,56 @@
+package com.cathive.convex.geometry;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+public class ConvexHullPartTest {
+
+    private static final int RADIUS = 1 << 28;
+
+    /**
+     * Points near a circle produce long outline staircases of which most points have to be removed, which is
+     * the worst case of the correction. The time per staircase point must not grow with the number of points,
+     * which it would by orders of magnitude if the correction were quadratic.
+     */
+    @Test
+    public void testCorrectionScalesLinearlyOnCircles() {
+        // warm up, then compare the best of several runs
+        nanosPerStaircasePoint(1 << 12);
+        double small = nanosPerStaircasePoint(1 << 14);
+        double large = nanosPerStaircasePoint(1 << 19);
+        assertTrue("small: " + small + " ns, large: " + large + " ns", large < 4 * small);
+    }
+
+    private static double nanosPerStaircasePoint(int n) {
+        Random random = new Random(n);
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        for (int i = 0; i < n; i++) {
+            // the radii are jittered so that the outline is not already convex
+            double phi = 2 * Math.PI * random.nextDouble();
+            double r = RADIUS * (1 - random.nextDouble() * 1e-3);
+            xs[i] = (int) (r * Math.cos(phi));
+            ys[i] = (int) (r * Math.sin(phi));
+        }
+        Outline outline = Outline.of(SortedPointSet.of(xs, ys, n));
+        int staircase = 0;
+        int vertices = 0;
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 10; run++) {
+            vertices = 0;
+            long start = System.nanoTime();
+            for (Region region : Region.values()) {
+                vertices += ConvexHullPart.chain(outline.partForRegion(region)).size();
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        for (Region region : Region.values()) {
+            staircase += outline.partForRegion(region).size();
+        }
+        assertTrue("the correction must remove points", vertices < staircase);
+        return best / (double) staircase;
+    }
+}
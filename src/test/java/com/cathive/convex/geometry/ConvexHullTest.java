@@ -0,0 +1,338 @@
+package com.cathive.convex.geometry;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ConvexHullTest {
+
+    private static final Pattern P = Pattern.compile("^(-?\\d+) (-?\\d+)\\s*$");
+
+    @Test
+    public void testRandomTestData() throws IOException {
+        for (String name : new String[]{"random10", "random100", "random1000"}) {
+            List<Point> points = read("/test-data/" + name + ".points");
+            List<Point> expected = read("/test-data/" + name + ".test");
+            assertEquals(name, new HashSet<>(expected), new HashSet<>(ConvexHull.setup(points).getPoints()));
+        }
+    }
+
+    @Test
+    public void testPrimitiveSetupEqualsListSetup() throws IOException {
+        List<Point> points = read("/test-data/random1000.points");
+        int[] xs = new int[points.size() + 5];
+        int[] ys = new int[points.size() + 5];
+        for (int i = 0; i < points.size(); i++) {
+            xs[i] = points.get(i).getX();
+            ys[i] = points.get(i).getY();
+        }
+        assertEquals(ConvexHull.setup(points).getPoints(), ConvexHull.setup(xs, ys, points.size()).getPoints());
+    }
+
+    @Test
+    public void testPrimitiveSetupNegativeCoordinates() {
+        int[] xs = {-5, 5, 5, -5, 0, Integer.MIN_VALUE, 3};
+        int[] ys = {-5, -5, 5, 5, 0, 0, -3};
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < xs.length; i++) {
+            points.add(Point.of(xs[i], ys[i]));
+        }
+        assertEquals(ConvexHull.setup(points).getPoints(), ConvexHull.setup(xs, ys, xs.length).getPoints());
+    }
+
+    @Test
+    public void testTriangleWithInteriorPoints() {
+        List<Point> points = new ArrayList<>(Arrays.asList(Point.of(0, 0), Point.of(500, -1000), Point.of(1000, 500)));
+        for (int i = 0; i < 100; i++) {
+            points.add(Point.of(500 + i, -i));
+        }
+        List<Point> expected = Arrays.asList(Point.of(0, 0), Point.of(1000, 500), Point.of(500, -1000));
+        assertEquals(expected, ConvexHull.setup(points).getPoints());
+        ConvexHull square = ConvexHull.setup(Arrays.asList(
+                Point.of(0, 0), Point.of(0, 100), Point.of(100, 100), Point.of(100, 0)));
+        assertEquals(expected, square.update(points).getPoints());
+        List<Point> duplicates = Arrays.asList(Point.of(0, 0), Point.of(0, 0), Point.of(5, 0), Point.of(0, 5));
+        assertEquals(ConvexHull.setup(duplicates).getPoints(), square.update(duplicates).getPoints());
+    }
+
+    @Test
+    public void testParallelSetupEqualsSetup() {
+        Random random = new Random(3);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int size : new int[]{10, 100000, 300000}) {
+                List<Point> points = randomPoints(random, size, 0, 100000);
+                assertEquals(ConvexHull.setup(points).getPoints(), ConvexHull.setupParallel(points, pool).getPoints());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testOutputSensitiveSetupEqualsSetup() {
+        Random random = new Random(7);
+        for (int size : new int[]{3, 4, 10, 1000, 100000}) {
+            List<Point> points = randomPoints(random, size, 0, 1000);
+            assertEquals(ConvexHull.setup(points).getPoints(), ConvexHull.setupOutputSensitive(points).getPoints());
+        }
+    }
+
+    @Test
+    public void testDeltaUpdateEqualsSetup() {
+        Random random = new Random(9);
+        List<Point> points = randomPoints(random, 5000, 0, 1000);
+        ConvexHull hull = ConvexHull.setupForDeltaUpdates(points);
+        Set<Point> current = new HashSet<>(points);
+        for (int i = 0; i < 50; i++) {
+            List<Point> added = randomPoints(random, 1, -50, 1050);
+            List<Point> removed = Collections.singletonList(hull.getPoints().get(random.nextInt(hull.getPoints().size())));
+            current.addAll(added);
+            current.removeAll(removed);
+            hull = hull.update(added, removed);
+            assertEquals(ConvexHull.setup(new ArrayList<>(current)).getPoints(), hull.getPoints());
+        }
+        assertSame(hull, hull.update(Collections.<Point>emptyList(), Collections.singletonList(Point.of(-1, -1))));
+    }
+
+    @Test
+    public void testDeltaUpdateKeepsOutlineOnly() {
+        Random random = new Random(11);
+        List<Point> points = randomPoints(random, 5000, 0, 1000);
+        ConvexHull hull = ConvexHull.setup(points);
+        for (int i = 0; i < 20; i++) {
+            List<Point> added = randomPoints(random, 1, -50, 1050);
+            points.addAll(added);
+            hull = hull.update(added, Collections.<Point>emptyList());
+            assertEquals(ConvexHull.setup(points).getPoints(), hull.getPoints());
+        }
+        List<Point> square = Arrays.asList(Point.of(0, 0), Point.of(0, 10), Point.of(10, 10), Point.of(10, 0),
+                Point.of(2, 7));
+        assertEquals(Arrays.asList(Point.of(0, 10), Point.of(10, 10), Point.of(10, 0), Point.of(2, 7)),
+                ConvexHull.setupForDeltaUpdates(square).update(Collections.<Point>emptyList(),
+                        Collections.singletonList(Point.of(0, 0))).getPoints());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRemovalRequiresKeptPoints() {
+        List<Point> square = Arrays.asList(Point.of(0, 0), Point.of(0, 10), Point.of(10, 10), Point.of(10, 0),
+                Point.of(2, 7));
+        ConvexHull.setup(square).update(Collections.<Point>emptyList(), Collections.singletonList(Point.of(0, 0)));
+    }
+
+    @Test
+    public void testBuilderEqualsSetup() {
+        List<Point> points = randomPoints(new Random(17), 10000, -2500, 2500);
+        ConvexHull.Builder builder = ConvexHull.builder(64);
+        for (int i = 0; i < points.size(); i++) {
+            builder.accept(points.get(i));
+            if (i % 1000 == 999) {
+                assertEquals(ConvexHull.setup(points.subList(0, i + 1)).getPoints(), builder.build().getPoints());
+            }
+        }
+        builder.acceptAll(new int[]{-3000, 3000}, new int[]{-3000, 3000}, 2);
+        points.add(Point.of(-3000, -3000));
+        points.add(Point.of(3000, 3000));
+        assertEquals(ConvexHull.setup(points).getPoints(), builder.build().getPoints());
+    }
+
+    @Test
+    public void testApproximateSetupIsWithinEpsilon() {
+        Random random = new Random(19);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            double angle = random.nextDouble() * 2 * Math.PI;
+            double radius = 100000 * Math.sqrt(random.nextDouble());
+            points.add(Point.of((int) (radius * Math.cos(angle)), (int) (radius * Math.sin(angle))));
+        }
+        for (double epsilon : new double[]{0.5, 10, 1000}) {
+            List<Point> approximation = ConvexHull.setupApproximate(points, epsilon).getPoints();
+            for (Point vertex : ConvexHull.setup(points).getPoints()) {
+                assertTrue(vertex.toString(), distance(vertex, approximation) < epsilon);
+            }
+        }
+        assertEquals(ConvexHull.setup(points).getPoints(), ConvexHull.setupApproximate(points, 0.5).getPoints());
+        // the leftmost lowest point is not the lowest point of its strip
+        List<Point> extremes = Arrays.asList(Point.of(0, 0), Point.of(0, 5), Point.of(30, 0), Point.of(30, 5));
+        List<Point> strips = new ArrayList<>(extremes);
+        strips.addAll(Arrays.asList(Point.of(5, -10), Point.of(5, 20)));
+        assertTrue(ConvexHull.setupApproximate(strips, 10).getPoints().containsAll(extremes));
+    }
+
+    @Test
+    public void testBatchSetupEqualsSetup() {
+        Random random = new Random(29);
+        int n = 200000;
+        int[] keys = new int[n];
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        Map<Integer, List<Point>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            keys[i] = i < n / 2 ? i / 300 : random.nextInt(1000);
+            xs[i] = random.nextInt(1000);
+            ys[i] = random.nextInt(1000);
+            groups.computeIfAbsent(keys[i], key -> new ArrayList<>()).add(Point.of(xs[i], ys[i]));
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Map<Integer, ConvexHull> batch = ConvexHull.setupAll(keys, xs, ys, n, pool);
+            Map<Integer, ConvexHull> batchOfMap = ConvexHull.setupAll(groups, pool);
+            assertEquals(new ArrayList<>(groups.keySet()), new ArrayList<>(batch.keySet()));
+            for (Map.Entry<Integer, List<Point>> group : groups.entrySet()) {
+                List<Point> expected = ConvexHull.setup(group.getValue()).getPoints();
+                assertEquals(expected, batch.get(group.getKey()).getPoints());
+                assertEquals(expected, batchOfMap.get(group.getKey()).getPoints());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testMergeEqualsSetup() {
+        Random random = new Random(37);
+        List<Point> points = new ArrayList<>();
+        ConvexHull merged = ConvexHull.setup(Collections.<Point>emptyList());
+        for (int i = 0; i < 20; i++) {
+            List<Point> part = new ArrayList<>();
+            for (int j = random.nextInt(500); j > 0; j--) {
+                part.add(Point.of(random.nextInt(1000) + 50 * i, random.nextInt(1000)));
+            }
+            points.addAll(part);
+            merged = ConvexHull.merge(ConvexHull.setup(part), merged);
+            assertEquals(ConvexHull.setup(points).getPoints(), merged.getPoints());
+        }
+        assertEquals(merged.getPoints(), points.parallelStream().collect(ConvexHull.toConvexHull()).getPoints());
+        List<Point> line = Arrays.asList(Point.of(0, 0), Point.of(1, 1), Point.of(2, 2), Point.of(3, 3));
+        assertEquals(Arrays.asList(Point.of(0, 0), Point.of(3, 3)), ConvexHull.merge(ConvexHull.setup(line),
+                ConvexHull.setup(Collections.singletonList(Point.of(1, 1)))).getPoints());
+        assertEquals(Arrays.asList(Point.of(0, 0), Point.of(1, 1), Point.of(2, 2)), ConvexHull.merge(
+                ConvexHull.setup(line.subList(0, 2)), ConvexHull.setup(line.subList(1, 3))).getPoints());
+    }
+
+    @Test
+    public void testSnapshotMetrics() {
+        ConvexHull hull = ConvexHull.setup(Arrays.asList(Point.of(0, 0), Point.of(0, 6), Point.of(4, 6),
+                Point.of(4, 0), Point.of(2, 3), Point.of(1, 0)));
+        ConvexHullSnapshot snapshot = hull.snapshot();
+        assertSame(snapshot, hull.snapshot());
+        assertSame(snapshot.getPoints(), hull.getPoints());
+        assertEquals(48, snapshot.getTwiceArea());
+        assertEquals(24, snapshot.getArea(), 0);
+        assertEquals(20, snapshot.getPerimeter(), 1e-9);
+        assertEquals(2, snapshot.getCentroidX(), 1e-9);
+        assertEquals(3, snapshot.getCentroidY(), 1e-9);
+        assertEquals(Arrays.asList(0, 0, 4, 6), Arrays.asList(snapshot.getMinX(), snapshot.getMinY(),
+                snapshot.getMaxX(), snapshot.getMaxY()));
+        ConvexHullSnapshot triangle = ConvexHull.setup(Arrays.asList(Point.of(3, 0), Point.of(0, 0), Point.of(0, 3)))
+                .snapshot();
+        assertEquals(9, triangle.getTwiceArea());
+        assertEquals(1, triangle.getCentroidX(), 1e-9);
+        assertEquals(1, triangle.getCentroidY(), 1e-9);
+        ConvexHullSnapshot line = ConvexHull.setup(Arrays.asList(Point.of(0, 0), Point.of(3, 4), Point.of(6, 8)))
+                .snapshot();
+        assertEquals(0, line.getTwiceArea());
+        assertEquals(20, line.getPerimeter(), 1e-9);
+        assertEquals(3, line.getCentroidX(), 1e-9);
+    }
+
+    @Test
+    public void testRotatingCalipers() {
+        ConvexHullSnapshot diamond = ConvexHull.setup(Arrays.asList(Point.of(0, 5), Point.of(5, 11), Point.of(10, 5),
+                Point.of(5, 0), Point.of(5, 5))).snapshot();
+        assertEquals(new HashSet<>(Arrays.asList(Point.of(5, 0), Point.of(5, 11))),
+                new HashSet<>(diamond.getDiameterPoints()));
+        assertEquals(11, diamond.getDiameter(), 0);
+        assertEquals(60 / Math.sqrt(61), diamond.getMinimumWidth(), 1e-9);
+        assertEquals(60.5, diamond.getMinimumAreaRectangle().getArea(), 1e-9);
+        ConvexHullSnapshot square = ConvexHull.setup(Arrays.asList(Point.of(0, 5), Point.of(5, 10), Point.of(10, 5),
+                Point.of(5, 0), Point.of(5, 5))).snapshot();
+        OrientedRectangle rectangle = square.getMinimumAreaRectangle();
+        assertEquals(50, rectangle.getArea(), 1e-9);
+        assertEquals(45, Math.abs(rectangle.getAngle().deg()) % 90, 1e-9);
+        assertEquals(0, rectangle.getCornerX(0), 1e-9);
+        assertEquals(5, rectangle.getCornerY(0), 1e-9);
+        assertEquals(Math.sqrt(50), square.getMinimumWidth(), 1e-9);
+        ConvexHullSnapshot line = ConvexHull.setup(Arrays.asList(Point.of(0, 0), Point.of(3, 4), Point.of(6, 8)))
+                .snapshot();
+        assertEquals(10, line.getDiameter(), 1e-9);
+        assertEquals(0, line.getMinimumWidth(), 0);
+        assertEquals(10, line.getMinimumAreaRectangle().getWidth(), 1e-9);
+    }
+
+    @Test
+    public void testConcurrentRegionsEqualSequential() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Point> points = read("/test-data/random1000.points");
+            ConvexHull sequential = ConvexHull.setup(points);
+            ConvexHull concurrent = ConvexHull.setup(points, executor);
+            assertEquals(sequential.getPoints(), concurrent.getPoints());
+            List<Point> updated = new ArrayList<>(points);
+            updated.add(Point.of(-100, -100));
+            assertEquals(sequential.update(updated).getPoints(), concurrent.update(updated, executor).getPoints());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static List<Point> randomPoints(Random random, int n, int from, int to) {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            points.add(Point.of(from + random.nextInt(to - from), from + random.nextInt(to - from)));
+        }
+        return points;
+    }
+
+    private static double distance(Point point, List<Point> polygon) {
+        double distance = Double.MAX_VALUE;
+        boolean inside = true;
+        for (int i = 0; i < polygon.size(); i++) {
+            Point a = polygon.get(i);
+            Point b = polygon.get((i + 1) % polygon.size());
+            inside &= Determinant.of(a, b, point) <= 0;
+            double dx = b.getX() - a.getX();
+            double dy = b.getY() - a.getY();
+            double t = Math.max(0, Math.min(1, ((point.getX() - a.getX()) * dx + (point.getY() - a.getY()) * dy)
+                    / (dx * dx + dy * dy)));
+            distance = Math.min(distance, Math.hypot(point.getX() - a.getX() - t * dx, point.getY() - a.getY() - t * dy));
+        }
+        return inside ? 0 : distance;
+    }
+
+    private static List<Point> read(String resource) throws IOException {
+        List<Point> points = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                ConvexHullTest.class.getResourceAsStream(resource), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = P.matcher(line);
+                if (matcher.matches()) {
+                    points.add(Point.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+                }
+            }
+        }
+        return points;
+    }
+}
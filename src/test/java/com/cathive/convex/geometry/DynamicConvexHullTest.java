@@ -0,0 +1,87 @@
+package com.cathive.convex.geometry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DynamicConvexHullTest {
+
+    @Test
+    public void testInsertAndRemoveEqualSetup() {
+        Random random = new Random(5);
+        List<Point> points = new ArrayList<>();
+        DynamicConvexHull hull = new DynamicConvexHull();
+        for (int i = 0; i < 2000; i++) {
+            Point point = Point.of(random.nextInt(200), random.nextInt(200));
+            if (hull.insert(point)) {
+                points.add(point);
+            }
+            if (i % 50 == 49) {
+                assertEquals(ConvexHull.setup(points).getPoints(), hull.getPoints());
+            }
+        }
+        Collections.shuffle(points, random);
+        while (points.size() > 10) {
+            assertTrue(hull.remove(points.remove(points.size() - 1)));
+            if (points.size() % 50 == 0) {
+                assertEquals(ConvexHull.setup(points).getPoints(), hull.getPoints());
+            }
+        }
+        assertEquals(points.size(), hull.size());
+    }
+
+    @Test
+    public void testFullCoordinateRange() {
+        Random random = new Random(11);
+        for (int run = 0; run < 200; run++) {
+            List<Point> points = new ArrayList<>();
+            DynamicConvexHull hull = new DynamicConvexHull();
+            for (int i = 0; i < 30; i++) {
+                Point point = Point.of(random.nextInt(), random.nextInt());
+                if (hull.insert(point)) {
+                    points.add(point);
+                }
+            }
+            assertEquals(ConvexHull.setup(points).getPoints(), hull.getPoints());
+            Collections.shuffle(points, random);
+            while (points.size() > 4) {
+                assertTrue(hull.remove(points.remove(points.size() - 1)));
+                assertEquals(ConvexHull.setup(points).getPoints(), hull.getPoints());
+            }
+        }
+    }
+
+    @Test
+    public void testFewPointsEqualSetup() {
+        for (List<Point> points : Arrays.asList(
+                Arrays.asList(Point.of(0, 0), Point.of(500, -1000), Point.of(1000, 500)),
+                Arrays.asList(Point.of(0, 7), Point.of(3, 7), Point.of(4, 7)))) {
+            DynamicConvexHull hull = new DynamicConvexHull();
+            for (Point point : points) {
+                hull.insert(point);
+                assertEquals(ConvexHull.setup(new ArrayList<>(points.subList(0, hull.size()))).getPoints(),
+                        hull.getPoints());
+            }
+        }
+    }
+
+    @Test
+    public void testCollinearPointsAreNoVertices() {
+        DynamicConvexHull hull = new DynamicConvexHull();
+        for (int i = 0; i < 10; i++) {
+            hull.insert(Point.of(i, 2 * i));
+        }
+        assertEquals(Arrays.asList(Point.of(0, 0), Point.of(9, 18)), hull.getPoints());
+        assertFalse(hull.insert(Point.of(3, 6)));
+        assertTrue(hull.remove(Point.of(9, 18)));
+        assertEquals(Arrays.asList(Point.of(0, 0), Point.of(8, 16)), hull.getPoints());
+    }
+}
@@ -0,0 +1,73 @@
+package com.cathive.convex.geometry;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class HullCodecTest {
+
+    @Test
+    public void testConvexHullRoundTrip() throws IOException {
+        Random random = new Random(41);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            points.add(Point.of(random.nextInt(100000) - 50000, random.nextInt(100000) - 50000));
+        }
+        ConvexHull hull = ConvexHull.setupForDeltaUpdates(points);
+        Path file = Files.createTempFile("hull", ".bin");
+        try {
+            HullCodec.write(file, hull);
+            ConvexHull decoded = HullCodec.readConvexHull(file);
+            assertEquals(hull.getPoints(), decoded.getPoints());
+            assertArrayEquals(HullCodec.encode(hull), HullCodec.encode(decoded));
+            List<Point> added = Collections.singletonList(Point.of(60000, 0));
+            List<Point> removed = Collections.singletonList(hull.getPoints().get(0));
+            assertEquals(hull.update(added, removed).getPoints(), decoded.update(added, removed).getPoints());
+        } finally {
+            Files.delete(file);
+        }
+        ConvexHull outlineOnly = ConvexHull.setup(points);
+        ConvexHull decodedOutlineOnly = HullCodec.decodeConvexHull(ByteBuffer.wrap(HullCodec.encode(outlineOnly)));
+        List<Point> outside = Collections.singletonList(Point.of(0, 60000));
+        assertEquals(outlineOnly.update(outside, Collections.<Point>emptyList()).getPoints(),
+                decodedOutlineOnly.update(outside, Collections.<Point>emptyList()).getPoints());
+        ConvexHull small = ConvexHull.setup(Arrays.asList(Point.of(2, 2), Point.of(0, 0), Point.of(1, 1)));
+        assertEquals(small.getPoints(),
+                HullCodec.decodeConvexHull(ByteBuffer.wrap(HullCodec.encode(small))).getPoints());
+    }
+
+    @Test
+    public void testAngleHullRoundTrip() {
+        AngleHull hull = AngleHull.Factory.get().generateAngleHull(ConvexHull.setup(Arrays.asList(
+                Point.of(0, 0), Point.of(0, 100), Point.of(100, 100), Point.of(100, 0), Point.of(30, 120))),
+                Angle.fromDeg(60));
+        AngleHull decoded = HullCodec.decodeAngleHull(ByteBuffer.wrap(HullCodec.encode(hull)));
+        for (AngleHull.CuttingStrategy strategy : AngleHull.CuttingStrategy.values()) {
+            assertEquals(arcs(hull, strategy), arcs(decoded, strategy));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsOtherKind() {
+        HullCodec.decodeConvexHull(ByteBuffer.wrap(HullCodec.encode(AngleHull.Factory.get().generateAngleHull(
+                ConvexHull.setup(Arrays.asList(Point.of(0, 0), Point.of(0, 10), Point.of(10, 0), Point.of(10, 10))),
+                Angle.fromDeg(90)))));
+    }
+
+    private static List<String> arcs(AngleHull hull, AngleHull.CuttingStrategy strategy) {
+        return hull.mapWith((z, r, beta, rho) -> z + " " + r + " " + beta.rad() + " " + rho.rad(), strategy)
+                .collect(Collectors.toList());
+    }
+}
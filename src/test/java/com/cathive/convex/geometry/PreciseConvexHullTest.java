@@ -0,0 +1,59 @@
+package com.cathive.convex.geometry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class PreciseConvexHullTest {
+
+    @Test
+    public void testIntegerCoordinatesEqualSetup() {
+        Random random = new Random(23);
+        int n = 10000;
+        long[] xs = new long[n];
+        long[] ys = new long[n];
+        double[] dxs = new double[n];
+        double[] dys = new double[n];
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Point point = Point.of(random.nextInt(2000) - 1000, random.nextInt(2000) - 1000);
+            points.add(point);
+            xs[i] = point.getX();
+            ys[i] = point.getY();
+            dxs[i] = point.getX();
+            dys[i] = point.getY();
+        }
+        List<Point> expected = ConvexHull.setup(points).getPoints();
+        assertEquals(expected, pointsOf(points, PreciseConvexHull.vertices(xs, ys, n)));
+        assertEquals(expected, pointsOf(points, PreciseConvexHull.vertices(dxs, dys, n)));
+    }
+
+    @Test
+    public void testLongCoordinatesDoNotOverflow() {
+        long[] xs = {Long.MIN_VALUE, Long.MAX_VALUE, 0, 0, Long.MAX_VALUE - 2, Long.MAX_VALUE / 2};
+        long[] ys = {Long.MIN_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE - 2,
+                Long.MAX_VALUE / 2};
+        assertArrayEquals(new int[]{0, 2, 1, 3}, PreciseConvexHull.vertices(xs, ys, xs.length));
+    }
+
+    @Test
+    public void testNearlyCollinearDoubleCoordinates() {
+        double[] xs = {0.1, 0.3, 0.2, 0.2, 0.2};
+        double[] ys = {0.1, 0.3, 0.2, Math.nextUp(0.2), Math.nextDown(0.2)};
+        assertArrayEquals(new int[]{0, 3, 1, 4}, PreciseConvexHull.vertices(xs, ys, xs.length));
+        assertArrayEquals(new int[]{0, 1}, PreciseConvexHull.vertices(xs, ys, 3));
+    }
+
+    private static List<Point> pointsOf(List<Point> points, int[] indices) {
+        List<Point> result = new ArrayList<>();
+        for (int index : indices) {
+            result.add(points.get(index));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,51 @@
+package com.cathive.convex.geometry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class SlidingWindowConvexHullTest {
+
+    @Test
+    public void testCountWindowEqualsSetup() {
+        Random random = new Random(21);
+        SlidingWindowConvexHull window = SlidingWindowConvexHull.ofCount(300);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            // few distinct points, so that the window contains duplicates
+            Point point = Point.of(random.nextInt(60), random.nextInt(60));
+            points.add(point);
+            window.add(point);
+            if (i % 100 == 99) {
+                List<Point> recent = points.subList(Math.max(0, points.size() - 300), points.size());
+                assertEquals(ConvexHull.setup(recent).getPoints(), window.getPoints());
+            }
+        }
+        assertEquals(300, window.size());
+    }
+
+    @Test
+    public void testDurationWindowExpiresOldPoints() {
+        SlidingWindowConvexHull window = SlidingWindowConvexHull.ofDuration(10);
+        window.add(Point.of(0, 0), 0);
+        window.add(Point.of(10, 0), 5);
+        window.add(Point.of(0, 10), 9);
+        window.add(Point.of(0, 0), 9);
+        assertEquals(Arrays.asList(Point.of(0, 0), Point.of(0, 10), Point.of(10, 0)), window.getPoints());
+        window.advance(14);
+        assertEquals(3, window.size());
+        assertEquals(Arrays.asList(Point.of(0, 0), Point.of(0, 10), Point.of(10, 0)), window.getPoints());
+        window.add(Point.of(5, 5), 15);
+        assertEquals(Arrays.asList(Point.of(0, 0), Point.of(0, 10), Point.of(5, 5)), window.getPoints());
+        window.advance(19);
+        assertEquals(Arrays.asList(Point.of(5, 5)), window.getPoints());
+        window.add(Point.of(0, 5), 20);
+        window.add(Point.of(10, 5), 21);
+        assertEquals(Arrays.asList(Point.of(0, 5), Point.of(5, 5), Point.of(10, 5)), window.getPoints());
+    }
+}
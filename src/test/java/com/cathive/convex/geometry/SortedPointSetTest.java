@@ -0,0 +1,49 @@
+package com.cathive.convex.geometry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SortedPointSetTest {
+
+    @Test
+    public void testInteriorPointsAreCulled() {
+        Random random = new Random(11);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            points.add(Point.of(random.nextInt(10000), random.nextInt(10000)));
+        }
+        SortedPointSet sorted = SortedPointSet.of(points);
+        assertTrue("culled only " + sorted.culled(), sorted.culled() > 7000);
+        assertTrue(sorted.culled() + sorted.size() <= points.size());
+        assertEquals(ConvexHull.setup(points).getPoints(), ConvexHull.setup(sorted.asList()).getPoints());
+    }
+
+    @Test
+    public void testLargeSetIsSortedWithoutDuplicates() {
+        Random random = new Random(13);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 200000; i++) {
+            int x = random.nextInt(150000) - 75000;
+            points.add(Point.of(x, -2 * x));
+        }
+        assertEquals(new ArrayList<>(new TreeSet<>(points)), SortedPointSet.of(points).asList());
+    }
+
+    @Test
+    public void testCollinearPointsAreNotCulled() {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            points.add(Point.of(i, 2 * i));
+        }
+        SortedPointSet sorted = SortedPointSet.of(points);
+        assertEquals(0, sorted.culled());
+        assertEquals(100, sorted.size());
+    }
+}